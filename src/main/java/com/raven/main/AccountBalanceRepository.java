@@ -0,0 +1,382 @@
+package com.raven.main;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Maintains {@code account_balances}: per user and account, the debit and
+ * credit totals of every journal line posted to that account. The table is
+ * updated by {@link JournalEntryRepository} inside the same transaction as
+ * the lines themselves, so readers can get totals in O(accounts) instead of
+ * summing every line.
+ *
+ * Lines without an {@code account_id} (not linked to a Chart of Accounts row)
+ * are not counted.
+ */
+public final class AccountBalanceRepository {
+
+    private AccountBalanceRepository() {}
+
+    /** Debit/credit totals of one account, in minor units (see {@link Money}). */
+    public static final class AccountTotals {
+        public final int accountId;
+        public final long debitTotal;
+        public final long creditTotal;
+        public final int lineCount;
+
+        AccountTotals(int accountId, long debitTotal, long creditTotal, int lineCount) {
+            this.accountId = accountId;
+            this.debitTotal = debitTotal;
+            this.creditTotal = creditTotal;
+            this.lineCount = lineCount;
+        }
+    }
+
+    /** One account whose stored totals differ from the totals recomputed from its lines. */
+    public static final class Drift {
+        public final int userId;
+        public final int accountId;
+        public final long storedDebit;
+        public final long storedCredit;
+        public final long actualDebit;
+        public final long actualCredit;
+        public final long storedLineCount;
+        public final long actualLineCount;
+
+        Drift(int userId, int accountId, long[] stored, long[] actual) {
+            this.userId = userId;
+            this.accountId = accountId;
+            this.storedDebit = stored[0];
+            this.storedCredit = stored[1];
+            this.storedLineCount = stored[2];
+            this.actualDebit = actual[0];
+            this.actualCredit = actual[1];
+            this.actualLineCount = actual[2];
+        }
+
+        @Override
+        public String toString() {
+            return "user " + userId + ", account " + accountId
+                    + ": stored " + Money.format(storedDebit) + "/" + Money.format(storedCredit) + " in " + storedLineCount + " lines"
+                    + ", actual " + Money.format(actualDebit) + "/" + Money.format(actualCredit) + " in " + actualLineCount + " lines";
+        }
+    }
+
+    // Adds (sign = 1) or removes (sign = -1) the lines of one header from the totals
+    private static final String APPLY_HEADER_SQL = """
+            INSERT INTO account_balances (user_id, account_id, debit_total, credit_total, line_count)
+            SELECT h.user_id, l.account_id, ? * SUM(l.debit), ? * SUM(l.credit), ? * COUNT(*)
+              FROM journal_entry_lines l
+              JOIN journal_entry_headers h ON h.id = l.header_id
+             WHERE l.header_id = ? AND l.account_id IS NOT NULL
+             GROUP BY h.user_id, l.account_id
+            ON CONFLICT (user_id, account_id) DO UPDATE SET
+                debit_total  = debit_total  + excluded.debit_total,
+                credit_total = credit_total + excluded.credit_total,
+                line_count   = line_count   + excluded.line_count
+            """;
+
+    // Drops the rows of one header's accounts that have no lines left; primary key lookups only
+    private static final String DELETE_EMPTY_SQL = """
+            DELETE FROM account_balances
+             WHERE user_id = (SELECT user_id FROM journal_entry_headers WHERE id = ?)
+               AND account_id IN (SELECT account_id FROM journal_entry_lines WHERE header_id = ? AND account_id IS NOT NULL)
+               AND line_count <= 0
+            """;
+
+    private static final String ACTUAL_TOTALS_SQL = """
+            SELECT h.user_id, l.account_id, SUM(l.debit) AS debit_total, SUM(l.credit) AS credit_total, COUNT(*) AS line_count
+              FROM journal_entry_lines l
+              JOIN journal_entry_headers h ON h.id = l.header_id
+             WHERE l.account_id IS NOT NULL
+             GROUP BY h.user_id, l.account_id
+            """;
+
+    /**
+     * Add the current lines of the given header to the totals. Call inside
+     * the transaction that inserted them. Like {@link #removeHeader}, this
+     * also invalidates the period closes the header falls in.
+     */
+    static void addHeader(Connection conn, int headerId) throws SQLException {
+        applyHeader(conn, headerId, 1);
+    }
+
+    /**
+     * Remove the current lines of the given header from the totals. Call
+     * inside the transaction that is about to delete or replace them.
+     */
+    static void removeHeader(Connection conn, int headerId) throws SQLException {
+        applyHeader(conn, headerId, -1);
+        try (PreparedStatement ps = conn.prepareStatement(DELETE_EMPTY_SQL)) {
+            ps.setInt(1, headerId);
+            ps.setInt(2, headerId);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void applyHeader(Connection conn, int headerId, int sign) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(APPLY_HEADER_SQL)) {
+            ps.setInt(1, sign);
+            ps.setInt(2, sign);
+            ps.setInt(3, sign);
+            ps.setInt(4, headerId);
+            ps.executeUpdate();
+        }
+        PeriodCloseRepository.invalidateForHeader(conn, headerId);
+    }
+
+    /** @return stored totals of every posted account of the user, keyed by account id. */
+    public static Map<Integer, AccountTotals> getTotalsForUser(int userId) throws SQLException {
+        Map<Integer, AccountTotals> out = new HashMap<>();
+        String sql = "SELECT account_id, debit_total, credit_total, line_count FROM account_balances WHERE user_id = ?";
+        try (Connection conn = DBConnection.connectForRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int accountId = rs.getInt("account_id");
+                    out.put(accountId, new AccountTotals(accountId,
+                            rs.getLong("debit_total"), rs.getLong("credit_total"), rs.getInt("line_count")));
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Debit/credit totals of every posted account of one user at the end of
+     * each of several days, read with {@link #getTotalsAsOf(int, List)}.
+     */
+    public static final class AsOfTotals {
+        /** The requested days, ascending and without duplicates. */
+        public final List<LocalDate> dates;
+        // Per account: cumulative debit, credit (minor units) and line count at each date
+        private final Map<Integer, long[][]> byAccount;
+
+        AsOfTotals(List<LocalDate> dates, Map<Integer, long[][]> byAccount) {
+            this.dates = dates;
+            this.byAccount = byAccount;
+        }
+
+        /** @return ids of the accounts with at least one line up to the last date. */
+        public Set<Integer> accountIds() {
+            return Collections.unmodifiableSet(byAccount.keySet());
+        }
+
+        /** @return totals of the account at the end of {@code date}; zero if it had no lines by then. */
+        public AccountTotals get(int accountId, LocalDate date) {
+            int index = dates.indexOf(date);
+            if (index < 0) throw new IllegalArgumentException("Totals were not read for " + date);
+            long[][] totals = byAccount.get(accountId);
+            if (totals == null) return new AccountTotals(accountId, 0, 0, 0);
+            return new AccountTotals(accountId, totals[0][index], totals[1][index], (int) totals[2][index]);
+        }
+    }
+
+    /** @return totals of every posted account of the user at the end of {@code asOf}, keyed by account id. */
+    public static Map<Integer, AccountTotals> getTotalsAsOf(int userId, LocalDate asOf) throws SQLException {
+        AsOfTotals totals = getTotalsAsOf(userId, List.of(asOf));
+        Map<Integer, AccountTotals> out = new HashMap<>();
+        for (Integer accountId : totals.accountIds()) {
+            out.put(accountId, totals.get(accountId, asOf));
+        }
+        return out;
+    }
+
+    /**
+     * Totals of every posted account of the user at the end of each of the
+     * given days (e.g. every month-end of a year for a comparative balance
+     * sheet), in one grouped query. Lines are bucketed by the first
+     * requested day on or after their entry_day, and the buckets are summed
+     * cumulatively, so each line is read once no matter how many days are
+     * asked for.
+     *
+     * Reading starts from the latest period close on or before the first
+     * day (see {@link PeriodCloseRepository}); only lines after it are
+     * scanned, so the cost does not depend on how much history precedes it.
+     */
+    public static AsOfTotals getTotalsAsOf(int userId, List<LocalDate> asOfDates) throws SQLException {
+        try (Connection conn = DBConnection.connectForRead()) {
+            // Snapshot and lines must come from the same state of the database
+            conn.setAutoCommit(false);
+            try {
+                return readTotalsAsOf(conn, userId, asOfDates);
+            } finally {
+                conn.commit();
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** {@link #getTotalsAsOf(int, List)} on a connection the caller holds in a transaction. */
+    static AsOfTotals readTotalsAsOf(Connection conn, int userId, List<LocalDate> asOfDates) throws SQLException {
+        List<LocalDate> dates = List.copyOf(new TreeSet<>(asOfDates));
+        Map<Integer, long[][]> byAccount = new HashMap<>();
+        if (dates.isEmpty()) return new AsOfTotals(dates, byAccount);
+
+        // Closing totals of the nearest period end at or before the first date seed the first bucket
+        Long closedThrough = PeriodCloseRepository.latestCloseOnOrBefore(conn, userId, dates.get(0).toEpochDay());
+        if (closedThrough != null) {
+            for (AccountTotals t : PeriodCloseRepository.readClose(conn, userId, closedThrough)) {
+                long[][] totals = byAccount.computeIfAbsent(t.accountId, id -> new long[3][dates.size()]);
+                totals[0][0] += t.debitTotal;
+                totals[1][0] += t.creditTotal;
+                totals[2][0] += t.lineCount;
+            }
+        }
+
+        StringBuilder bucket = new StringBuilder("CASE");
+        for (int i = 0; i < dates.size(); i++) {
+            bucket.append(" WHEN h.entry_day <= ? THEN ").append(i);
+        }
+        bucket.append(" END");
+        String sql = """
+                SELECT l.account_id, %s AS bucket,
+                       SUM(l.debit) AS debit_total, SUM(l.credit) AS credit_total, COUNT(*) AS line_count
+                  FROM journal_entry_headers h
+                  JOIN journal_entry_lines l ON l.header_id = h.id
+                 WHERE h.user_id = ? AND h.entry_day > ? AND h.entry_day <= ? AND l.account_id IS NOT NULL
+                 GROUP BY l.account_id, bucket
+                """.formatted(bucket);
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int p = 1;
+            for (LocalDate d : dates) ps.setLong(p++, d.toEpochDay());
+            ps.setInt(p++, userId);
+            ps.setLong(p++, closedThrough != null ? closedThrough : Long.MIN_VALUE);
+            ps.setLong(p, dates.get(dates.size() - 1).toEpochDay());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long[][] totals = byAccount.computeIfAbsent(rs.getInt("account_id"), id -> new long[3][dates.size()]);
+                    int b = rs.getInt("bucket");
+                    totals[0][b] += rs.getLong("debit_total");
+                    totals[1][b] += rs.getLong("credit_total");
+                    totals[2][b] += rs.getInt("line_count");
+                }
+            }
+        }
+
+        // Running sums: the totals at a date include every earlier bucket
+        for (long[][] totals : byAccount.values()) {
+            for (long[] series : totals) {
+                for (int i = 1; i < series.length; i++) series[i] += series[i - 1];
+            }
+        }
+        return new AsOfTotals(dates, byAccount);
+    }
+
+    /**
+     * Recompute the totals from journal_entry_lines and compare them with
+     * the stored ones. Nothing is modified.
+     *
+     * @return every account whose stored totals are missing, extra or different
+     */
+    public static List<Drift> verify() throws SQLException {
+        Map<Long, long[]> actual = new HashMap<>();
+        Map<Long, long[]> stored = new HashMap<>();
+        try (Connection conn = DBConnection.connectForRead();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(ACTUAL_TOTALS_SQL)) {
+                while (rs.next()) {
+                    actual.put(key(rs.getInt("user_id"), rs.getInt("account_id")),
+                            new long[]{rs.getLong("debit_total"), rs.getLong("credit_total"), rs.getLong("line_count")});
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT user_id, account_id, debit_total, credit_total, line_count FROM account_balances")) {
+                while (rs.next()) {
+                    stored.put(key(rs.getInt("user_id"), rs.getInt("account_id")),
+                            new long[]{rs.getLong("debit_total"), rs.getLong("credit_total"), rs.getLong("line_count")});
+                }
+            }
+        }
+
+        List<Drift> drift = new ArrayList<>();
+        Map<Long, long[]> all = new HashMap<>(actual);
+        stored.forEach(all::putIfAbsent);
+        for (Long k : all.keySet()) {
+            long[] a = actual.getOrDefault(k, new long[3]);
+            long[] s = stored.getOrDefault(k, new long[3]);
+            // line_count decides when a row is dropped, so it must match as well
+            if (!Arrays.equals(a, s)) {
+                drift.add(new Drift((int) (k >>> 32), (int) (long) k, s, a));
+            }
+        }
+        return drift;
+    }
+
+    /**
+     * Throw away the stored totals and recompute them from the lines.
+     *
+     * @return number of account rows written
+     */
+    public static int rebuild() throws SQLException {
+        try (Connection conn = DBConnection.connect();
+             Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            try {
+                int n = rebuild(stmt);
+                conn.commit();
+                return n;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** Rebuild on a statement whose connection is already in a transaction (used by the schema migration). */
+    static int rebuild(Statement stmt) throws SQLException {
+        stmt.executeUpdate("DELETE FROM account_balances");
+        return stmt.executeUpdate("INSERT INTO account_balances (user_id, account_id, debit_total, credit_total, line_count) "
+                + ACTUAL_TOTALS_SQL);
+    }
+
+    /**
+     * Command-line entry point for maintenance:
+     * {@code verify} prints any drift, {@code rebuild} prints the drift and then recomputes the table.
+     */
+    public static void main(String[] args) throws SQLException {
+        String command = args.length > 0 ? args[0] : "verify";
+        if (!"verify".equals(command) && !"rebuild".equals(command)) {
+            System.err.println("Usage: AccountBalanceRepository [verify|rebuild]");
+            System.exit(2);
+        }
+        DatabaseInitializer.initialize();
+        boolean drifted;
+        try {
+            List<Drift> drift = verify();
+            drifted = !drift.isEmpty();
+            if (!drifted) {
+                System.out.println("account_balances is consistent with journal_entry_lines.");
+            } else {
+                System.out.println(drift.size() + " account(s) drifted:");
+                for (Drift d : drift) System.out.println("  " + d);
+            }
+            if ("rebuild".equals(command)) {
+                System.out.println("Rebuilt " + rebuild() + " account row(s).");
+                drifted = false;
+            }
+        } finally {
+            DBConnection.shutdown();
+        }
+        if (drifted) System.exit(1);
+    }
+
+    private static long key(int userId, int accountId) {
+        return ((long) userId << 32) | (accountId & 0xFFFFFFFFL);
+    }
+}
@@ -19,28 +19,21 @@ public final class ActivityLogRepository {
         if (userId == null) return;
         String sql = "INSERT INTO activity_log (user_id, activity_type, entity_type, description) VALUES (?, ?, ?, ?)";
 
-        //Log the activity for the current user with the provided details
-        try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            ps.setString(2, activityType);
-            ps.setString(3, entityType);
-            ps.setString(4, description);
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        // Log the activity for the current user; the row is written with the next batch, off the calling thread
+        WriteBehindQueue.insert(sql, userId, activityType, entityType, description);
     }
 
     // Data class representing an activity log entry with its type, entity, description, and timestamp
     public static final class ActivityEntry {
+        public final long id;
         public final String activityType;
         public final String entityType;
         public final String description;
         public final String createdAt;
 
         // Constructor to initialize an activity entry with the given details. If createdAt is null, it defaults to an empty string
-        public ActivityEntry(String activityType, String entityType, String description, String createdAt) {
+        public ActivityEntry(long id, String activityType, String entityType, String description, String createdAt) {
+            this.id = id;
             this.activityType = activityType;
             this.entityType = entityType;
             this.description = description;
@@ -48,23 +41,34 @@ public final class ActivityLogRepository {
         }
     }
 
-    // Returns most recent activities for the current user (limit 10), ordered by most recent first
+    // Returns most recent activities for the current user, ordered by most recent first
     public static List<ActivityEntry> getRecent(int limit) {
-        List<ActivityEntry> result = new ArrayList<>();
         Integer userId = Session.getUserId();
-        
+
         // If no user is logged in, return an empty list of activities
-        if (userId == null) return result;
-        String sql = "SELECT activity_type, entity_type, description, created_at FROM activity_log WHERE user_id = ? ORDER BY id DESC LIMIT ?";
+        if (userId == null) return new ArrayList<>();
+        return getPage(userId, Long.MAX_VALUE, limit);
+    }
+
+    // Returns one page of the user's activities older than beforeId (keyset paging on id), most recent first.
+    // Pass Long.MAX_VALUE for the first page and the id of the last entry shown for the next one
+    public static List<ActivityEntry> getPage(int userId, long beforeId, int limit) {
+        List<ActivityEntry> result = new ArrayList<>();
+        String sql = "SELECT id, activity_type, entity_type, description, created_at FROM activity_log WHERE user_id = ? AND id < ? ORDER BY id DESC LIMIT ?";
+
+        // Rows logged just before the first page is read may still be queued
+        if (beforeId == Long.MAX_VALUE) WriteBehindQueue.flush();
 
-        // Retrieve the recent activity logs for the current user from the database and enter the result list with ActivityEntry objects
-        try (Connection conn = DBConnection.connect();
+        // Retrieve the page from the database and enter the result list with ActivityEntry objects
+        try (Connection conn = DBConnection.connectForRead();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, userId);
-            ps.setInt(2, limit);
+            ps.setLong(2, beforeId);
+            ps.setInt(3, limit);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     result.add(new ActivityEntry(
+                            rs.getLong("id"),
                             rs.getString("activity_type"),
                             rs.getString("entity_type"),
                             rs.getString("description"),
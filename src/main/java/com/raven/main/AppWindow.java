@@ -18,9 +18,12 @@ public class AppWindow extends JFrame {
     private final CardLayout cardLayout;
     private final JPanel cardPanel;
     private final homePage dashboardFrame;
+    private final journalEntry journalFrame;
     private final ledger ledgerFrame;
     private final trialBalance trialBalanceFrame;
     private final financialReports financialReportsFrame;
+    // Carries journal, account and ledger card changes between the views of this window
+    private final DomainEventBus eventBus = new DomainEventBus();
 
     // Constructor to set up the main application window
     public AppWindow() {
@@ -43,7 +46,7 @@ public class AppWindow extends JFrame {
         JPanel coaView = coaFrame.createRootPanel();
 
         // Journal Entry view card
-        journalEntry journalFrame = new journalEntry();
+        journalFrame = new journalEntry();
         JPanel journalView = (JPanel) journalFrame.getContentPane();
 
         // Ledger view card
@@ -58,10 +61,19 @@ public class AppWindow extends JFrame {
         financialReportsFrame = new financialReports(ledgerFrame);
         JPanel financialReportsView = (JPanel) financialReportsFrame.getContentPane();
 
-        // When Ledger mini cards change, refresh Trial Balance and dashboard metrics/activity
-        ledgerFrame.setOnLedgerChange(() -> {
-            trialBalanceFrame.refreshTrialBalanceFromLedger();
-            dashboardFrame.refreshDashboard();
+        // Views publish what they change and subscribe to what they show
+        coaFrame.setEventBus(eventBus);
+        journalFrame.setEventBus(eventBus);
+        ledgerFrame.setEventBus(eventBus);
+        trialBalanceFrame.setEventBus(eventBus);
+
+        // Journal and account changes refresh dashboard metrics/activity (once per burst); the ledger's
+        // LedgerCard* events only echo them, and showDashboard() refreshes anyway when the dashboard is opened
+        eventBus.subscribeBatched(batch -> {
+            if (batch.has(DomainEvent.JournalEntrySaved.class, DomainEvent.JournalEntryUpdated.class,
+                    DomainEvent.JournalEntryDeleted.class, DomainEvent.AccountRenamed.class, DomainEvent.AccountDeleted.class)) {
+                dashboardFrame.refreshDashboard();
+            }
         });
 
         // Add all the different view cards to the main card panel
@@ -107,6 +119,13 @@ public class AppWindow extends JFrame {
         cardLayout.show(cardPanel, CARD_FINANCIAL_REPORTS);
     }
 
+    // Stop the views' background work when the window goes away (e.g. on logout), then dispose the window itself
+    @Override
+    public void dispose() {
+        journalFrame.dispose();
+        super.dispose();
+    }
+
     // Getter for the Ledger frame to allow other views (like Trial Balance and Financial Reports) to access latest ledger data for calculations and display
     public ledger getLedgerFrame() {
         return ledgerFrame;
@@ -0,0 +1,166 @@
+package com.raven.main;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs repository calls off the Event Dispatch Thread and hands the results
+ * back to it.
+ *
+ * Work runs on a small shared pool of daemon threads (size from the
+ * {@code accounting.loader.threads} system property, default 4, which
+ * matches the default number of pooled reader connections). Each screen
+ * owns one or more {@link Channel}s. Within a channel, results are
+ * delivered on the EDT in the order the work was submitted, even if a later
+ * submission finishes first, and cancelled work is never delivered.
+ */
+public final class BackgroundLoader {
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(1, Integer.getInteger("accounting.loader.threads", 4)), r -> {
+                Thread t = new Thread(r, "data-loader-" + THREAD_NUMBER.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    private BackgroundLoader() {}
+
+    /** Handle to one submission; lets the caller cancel it. */
+    public static final class Ticket {
+        private final Channel channel;
+        private volatile boolean cancelled;
+
+        Ticket(Channel channel) {
+            this.channel = channel;
+        }
+
+        /** Drop the result. If the work has not started yet it is skipped. Call on the EDT. */
+        public void cancel() {
+            cancelled = true;
+            channel.fireLoading();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * An ordered stream of background loads for one part of the UI. All
+     * methods must be called on the EDT.
+     */
+    public static final class Channel {
+        private final String name;
+        private long nextSeq;
+        private long nextDelivery;
+        /** Submitted and not yet delivered (or dropped), by sequence number. */
+        private final Map<Long, Ticket> outstanding = new HashMap<>();
+        /** Finished out of order; waiting for earlier submissions to be delivered first. */
+        private final Map<Long, Runnable> ready = new HashMap<>();
+        private JComponent loadingIndicator;
+
+        public Channel(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Run {@code work} in the background and pass its result to
+         * {@code onResult} on the EDT. Exceptions are printed to stderr.
+         */
+        public <T> Ticket submit(Callable<T> work, Consumer<T> onResult) {
+            return submit(work, onResult, Exception::printStackTrace);
+        }
+
+        /**
+         * Run {@code work} in the background and pass its result to
+         * {@code onResult} (or its exception to {@code onError}) on the EDT.
+         */
+        public <T> Ticket submit(Callable<T> work, Consumer<T> onResult, Consumer<Exception> onError) {
+            if (!SwingUtilities.isEventDispatchThread()) {
+                throw new IllegalStateException("Channel " + name + " must be used on the Event Dispatch Thread.");
+            }
+            long seq = nextSeq++;
+            Ticket ticket = new Ticket(this);
+            outstanding.put(seq, ticket);
+            fireLoading();
+
+            EXECUTOR.execute(() -> {
+                Runnable delivery;
+                if (ticket.cancelled) {
+                    delivery = () -> { };
+                } else {
+                    try {
+                        T result = work.call();
+                        delivery = () -> {
+                            if (!ticket.cancelled) onResult.accept(result);
+                        };
+                    } catch (Exception e) {
+                        delivery = () -> {
+                            if (!ticket.cancelled) onError.accept(e);
+                        };
+                    }
+                }
+                Runnable d = delivery;
+                SwingUtilities.invokeLater(() -> complete(seq, d));
+            });
+            return ticket;
+        }
+
+        /** Cancel everything still outstanding on this channel, then submit. For "only the latest matters" loads. */
+        public <T> Ticket submitLatest(Callable<T> work, Consumer<T> onResult) {
+            cancelAll();
+            return submit(work, onResult);
+        }
+
+        /** Cancel every submission that has not been delivered yet. */
+        public void cancelAll() {
+            for (Ticket t : outstanding.values()) t.cancelled = true;
+            fireLoading();
+        }
+
+        /**
+         * Show {@code indicator} (e.g. a "Loading…" label) while this channel
+         * has live work, hide it otherwise.
+         */
+        public void setLoadingIndicator(JComponent indicator) {
+            this.loadingIndicator = indicator;
+            fireLoading();
+        }
+
+        public boolean isLoading() {
+            for (Ticket t : outstanding.values()) {
+                if (!t.cancelled) return true;
+            }
+            return false;
+        }
+
+        private void complete(long seq, Runnable delivery) {
+            ready.put(seq, delivery);
+            while (ready.containsKey(nextDelivery)) {
+                Runnable next = ready.remove(nextDelivery);
+                outstanding.remove(nextDelivery);
+                nextDelivery++;
+                try {
+                    next.run();
+                } catch (RuntimeException e) {
+                    // One failing callback must not stall the rest of the channel
+                    e.printStackTrace();
+                }
+            }
+            fireLoading();
+        }
+
+        private void fireLoading() {
+            if (loadingIndicator != null) loadingIndicator.setVisible(isLoading());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.raven.main;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of each user's Chart of Accounts, looked up by id or by
+ * normalized account name. A user's accounts are read with one query the
+ * first time they are needed; after that, the code that changes
+ * Chart_of_Accounts writes the change through here as well
+ * ({@link ChartOfAccountsRepository} on insert, the CoA screen on edit and
+ * delete), so lookups never go back to the database.
+ *
+ * Each user's accounts are an immutable snapshot that is replaced on every
+ * change, so readers on any thread see a consistent set without locking.
+ */
+public final class ChartOfAccountsCache {
+
+    /** One Chart_of_Accounts row as stored (name normalized to upper case). */
+    public static final class Account {
+        public final int id;
+        public final String name;
+        public final String type;
+        public final String createdAt;
+
+        public Account(int id, String name, String type, String createdAt) {
+            this.id = id;
+            this.name = name;
+            this.type = type;
+            this.createdAt = createdAt;
+        }
+    }
+
+    // Same order as the Chart of Accounts table: newest first
+    private static final Comparator<Account> NEWEST_FIRST = Comparator
+            .comparing((Account a) -> a.createdAt != null ? a.createdAt : "")
+            .thenComparingInt(a -> a.id)
+            .reversed();
+
+    private static final class Snapshot {
+        final List<Account> newestFirst;
+        final Map<Integer, Account> byId = new HashMap<>();
+        final Map<String, Account> byName = new HashMap<>();
+
+        Snapshot(List<Account> accounts) {
+            List<Account> sorted = new ArrayList<>(accounts);
+            sorted.sort(NEWEST_FIRST);
+            this.newestFirst = Collections.unmodifiableList(sorted);
+            for (Account a : sorted) {
+                byId.put(a.id, a);
+                byName.put(normalizeName(a.name), a);
+            }
+        }
+    }
+
+    private static final Map<Integer, Snapshot> BY_USER = new ConcurrentHashMap<>();
+    /** Held while a snapshot is loaded or replaced, so a change cannot be lost to a load that read before it. */
+    private static final Object LOCK = new Object();
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private ChartOfAccountsCache() {}
+
+    /** Trim, upper-case and collapse inner whitespace, the way account names are stored. */
+    public static String normalizeName(String name) {
+        return name == null ? "" : name.toUpperCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    /** @return the user's accounts, newest first */
+    public static List<Account> accounts(int userId) throws SQLException {
+        return snapshot(userId).newestFirst;
+    }
+
+    /** @return the account, or null if the user has no account with that id */
+    public static Account byId(int userId, int accountId) throws SQLException {
+        return snapshot(userId).byId.get(accountId);
+    }
+
+    /** @return the account with that name (compared normalized), or null */
+    public static Account byName(int userId, String name) throws SQLException {
+        return snapshot(userId).byName.get(normalizeName(name));
+    }
+
+    /** Add or replace an account after it was written to Chart_of_Accounts. */
+    public static void put(int userId, Account account) {
+        synchronized (LOCK) {
+            Snapshot current = BY_USER.get(userId);
+            // Not loaded yet: the first lookup reads it from the table
+            if (current == null) return;
+            List<Account> accounts = new ArrayList<>(current.newestFirst);
+            accounts.removeIf(a -> a.id == account.id);
+            accounts.add(account);
+            BY_USER.put(userId, new Snapshot(accounts));
+        }
+    }
+
+    /** Change an account's name and type after it was updated in Chart_of_Accounts. */
+    public static void update(int userId, int accountId, String name, String type) {
+        synchronized (LOCK) {
+            Snapshot current = BY_USER.get(userId);
+            if (current == null) return;
+            Account old = current.byId.get(accountId);
+            if (old == null) {
+                BY_USER.remove(userId);
+                return;
+            }
+            put(userId, new Account(accountId, name, type, old.createdAt));
+        }
+    }
+
+    /** Drop an account after it was deleted from Chart_of_Accounts. */
+    public static void remove(int userId, int accountId) {
+        synchronized (LOCK) {
+            Snapshot current = BY_USER.get(userId);
+            if (current == null || !current.byId.containsKey(accountId)) return;
+            List<Account> accounts = new ArrayList<>(current.newestFirst);
+            accounts.removeIf(a -> a.id == accountId);
+            BY_USER.put(userId, new Snapshot(accounts));
+        }
+    }
+
+    /** Forget the user's accounts; the next lookup reads them again. */
+    public static void invalidate(int userId) {
+        synchronized (LOCK) {
+            BY_USER.remove(userId);
+        }
+    }
+
+    /** @return lookups answered from memory */
+    public static long hitCount() {
+        return HITS.get();
+    }
+
+    /** @return lookups that had to read the user's accounts from the database */
+    public static long missCount() {
+        return MISSES.get();
+    }
+
+    /** A failed load is not cached, so the next lookup tries again. */
+    private static Snapshot snapshot(int userId) throws SQLException {
+        Snapshot s = BY_USER.get(userId);
+        if (s != null) {
+            HITS.incrementAndGet();
+            return s;
+        }
+        synchronized (LOCK) {
+            s = BY_USER.get(userId);
+            if (s != null) {
+                HITS.incrementAndGet();
+                return s;
+            }
+            MISSES.incrementAndGet();
+            s = new Snapshot(load(userId));
+            BY_USER.put(userId, s);
+            return s;
+        }
+    }
+
+    private static List<Account> load(int userId) throws SQLException {
+        List<Account> accounts = new ArrayList<>();
+        String sql = "SELECT id, account_name, account_type, created_at FROM Chart_of_Accounts WHERE user_id = ?";
+        try (Connection conn = DBConnection.connectForRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    accounts.add(new Account(rs.getInt("id"), rs.getString("account_name"),
+                            rs.getString("account_type"), rs.getString("created_at")));
+                }
+            }
+        }
+        return accounts;
+    }
+}
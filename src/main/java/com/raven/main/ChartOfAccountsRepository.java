@@ -4,6 +4,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -19,16 +20,8 @@ public class ChartOfAccountsRepository {
             throw new IllegalStateException("No logged-in user in Session.");
         }
 
-        // Check if the account name already exists for the current user in the database
-        String sql = "SELECT 1 FROM Chart_of_Accounts WHERE user_id = ? AND account_name = ?";
-        try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            ps.setString(2, normalizedAccountName);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next();
-            }
-        }
+        // Check if the account name already exists for the current user, using the cached copy of their accounts
+        return ChartOfAccountsCache.byName(userId, normalizedAccountName) != null;
     }
 
     // Inserts a new account for the current user with the given account name and account type along with a timestamp of when it was created
@@ -46,12 +39,21 @@ public class ChartOfAccountsRepository {
         // Insert the new account for the current user into the Chart_of_Accounts table with the provided account name, account type, and created_at timestamp
         String sql = "INSERT INTO Chart_of_Accounts (user_id, account_name, account_type, created_at) VALUES (?, ?, ?, ?)";
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setInt(1, userId);
             ps.setString(2, normalizedAccountName);
             ps.setString(3, accountType);
             ps.setString(4, createdAt);
             ps.executeUpdate();
+
+            // Write the new account through to the cache; without its id, have the cache read the table again
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    ChartOfAccountsCache.put(userId, new ChartOfAccountsCache.Account(keys.getInt(1), normalizedAccountName, accountType, createdAt));
+                } else {
+                    ChartOfAccountsCache.invalidate(userId);
+                }
+            }
         }
     }
 
@@ -10,7 +10,6 @@ import java.awt.event.MouseEvent;
 import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
@@ -35,9 +34,12 @@ public class CoA extends JFrame {
     private JLabel accountsCountLabel;
     private final List<Integer> accountIds = new ArrayList<>();
 
-    // Account IDs that have posted transactions (in journal_entry_lines); editing is locked for these
+    // Account IDs that have posted transactions (journal_entry_lines.account_id); editing is locked for these
     private final Set<Integer> postedAccountIds = new HashSet<>();
 
+    // Bus of the enclosing app window: account edits and deletions are published on it, journal changes arrive from it
+    private DomainEventBus eventBus;
+
     // Constructor to set up the Chart of Accounts frame with title, default close operation, size, and add the content pane with the createRootPanel method
     public CoA() {
         setTitle("ACCOUNTING SYSTEM - Chart of Accounts");
@@ -48,6 +50,29 @@ public class CoA extends JFrame {
         setContentPane(createRootPanel());
     }
 
+    // Connect this screen to the app window's event bus. Journal entry changes only refresh which accounts are posted (and so locked for editing) instead of reloading the whole table.
+    public void setEventBus(DomainEventBus bus) {
+        this.eventBus = bus;
+        bus.subscribeBatched(batch -> {
+            if (batch.has(DomainEvent.JournalEntrySaved.class, DomainEvent.JournalEntryUpdated.class, DomainEvent.JournalEntryDeleted.class)) {
+                refreshPostedAccounts();
+            }
+        });
+    }
+
+    // Re-read which accounts have posted transactions in the background, then repaint the table so the Edit buttons pick up the change
+    private void refreshPostedAccounts() {
+        Integer userId = Session.getUserId();
+        if (userId == null) return;
+        accountLoads.submit(() -> JournalEntryRepository.getPostedAccountIds(userId), posted -> {
+            postedAccountIds.clear();
+            for (Integer id : accountIds) {
+                if (posted.contains(id)) postedAccountIds.add(id);
+            }
+            if (accountsTable != null) accountsTable.repaint();
+        });
+    }
+
     // Method to create the main content panel for the Chart of Accounts view
     public JPanel createRootPanel() {
         JPanel root = new JPanel(new BorderLayout());
@@ -476,31 +501,7 @@ public class CoA extends JFrame {
         String currentName = (String) accountsTableModel.getValueAt(row, 2);
         String currentType = (String) accountsTableModel.getValueAt(row, 3);
 
-        // Get the stored account name from the database for the account being edited to compare with the new name in case the user changes the account name, and also to get the original normalized name for updating journal entry lines if the account name is changed
-        Integer userId = Session.getUserId();
-        if (userId == null) return;
-        String storedName = null;
-
-        try (Connection conn = DBConnection.connect();
-
-            // Query the database to get the stored account name for the account being edited using the account ID and user ID to ensure we get the correct account for the current user
-             PreparedStatement ps = conn.prepareStatement("SELECT account_name FROM Chart_of_Accounts WHERE id = ? AND user_id = ?")) {
-            ps.setInt(1, accountId);
-            ps.setInt(2, userId);
-
-            // Execute the query and retrieve the stored account name from the result set
-            try (ResultSet rs = ps.executeQuery()) {
-
-                // If a result is found, get the stored account name from the "account_name"
-                if (rs.next()) storedName = rs.getString("account_name");
-            }
-
-            // If the stored name is null, set it to an empty string to avoid null pointer exceptions
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            return;
-        }
-        final String oldNormalized = storedName != null ? storedName.trim().toUpperCase(Locale.ROOT).replaceAll("\\s+", " ") : "";
+        if (Session.getUserId() == null) return;
 
         // Create a modal dialog for editing the account with the title "Edit Account"
         JDialog dialog = new JDialog(this, "Edit Account", true);
@@ -584,7 +585,7 @@ public class CoA extends JFrame {
             Integer uid = Session.getUserId();
             if (uid == null) return;
 
-            // Execute the update query to save the changes to the account in the database, and if the account name was changed, also update the account name in any related journal entry lines to maintain consistency. After successfully saving the changes, log the activity, show a notification to the user, and reload the accounts table to reflect the updated information. If there is a database error during this process, show an error message to the user.
+            // Execute the update query to save the changes to the account in the database; journal entry lines pick up the new name through their account_id. After successfully saving the changes, log the activity, show a notification to the user, and reload the accounts table to reflect the updated information. If there is a database error during this process, show an error message to the user.
             try (Connection conn = DBConnection.connect();
                  PreparedStatement ps = conn.prepareStatement(updateSql)) {
                 ps.setString(1, normalized);
@@ -592,15 +593,18 @@ public class CoA extends JFrame {
                 ps.setInt(3, accountId);
                 ps.setInt(4, uid);
                 ps.executeUpdate();
-                JournalEntryRepository.updateAccountNameInLines(uid, oldNormalized, normalized);
-                ActivityLogRepository.log("edit", "chart_of_accounts", "Account " + ChartOfAccountsRepository.toTitleCase(normalized) + " updated");
-                NotificationRepository.insert(uid, "Account edited: " + ChartOfAccountsRepository.toTitleCase(normalized));
-                reloadAccountsTable();
+                ChartOfAccountsCache.update(uid, accountId, normalized, newType);
+                // Journal lines reference the account by id and read its name from here, so nothing else to rewrite.
             } catch (SQLException ex) {
                 ex.printStackTrace();
                 JOptionPane.showMessageDialog(dialog, "Failed to update account.", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
+            // Logged once the writer is returned, so the write-behind queue can always drain
+            ActivityLogRepository.log("edit", "chart_of_accounts", "Account " + ChartOfAccountsRepository.toTitleCase(normalized) + " updated");
+            NotificationRepository.insert(uid, "Account edited: " + ChartOfAccountsRepository.toTitleCase(normalized));
+            if (eventBus != null) eventBus.publish(new DomainEvent.AccountRenamed(accountId, normalized, newType));
+            reloadAccountsTable();
             dialog.dispose();
         });
         
@@ -614,94 +618,96 @@ public class CoA extends JFrame {
         dialog.setVisible(true);
     }
 
-    // Method to reload the accounts table with the latest data from the database for the current user, including checking which accounts have posted transactions to disable editing for those accounts, and updating the accounts count label with the number of accounts
+    // Accounts of one user as read by the background load, ready to put into the table model
+    private static final class AccountRows {
+        final List<Integer> ids = new ArrayList<>();
+        final Set<Integer> postedIds = new HashSet<>();
+        final List<Object[]> rows = new ArrayList<>();
+    }
+
+    private final BackgroundLoader.Channel accountLoads = new BackgroundLoader.Channel("chart-of-accounts");
+    private BackgroundLoader.Ticket accountReload;
+
+    // Method to reload the accounts table with the latest data from the database for the current user, including checking which accounts have posted transactions to disable editing for those accounts, and updating the accounts count label with the number of accounts. The queries run in the background; the table keeps its current rows until the new ones arrive, and only the latest reload is applied.
     private void reloadAccountsTable() {
         if (accountsTableModel == null) {
             return;
         }
 
-        accountsTableModel.setRowCount(0);
-
         Integer userId = Session.getUserId();
-        if (userId == null) {
-            return;
-        }
-
-        // Query to select the account ID, account name, account type, and creation timestamp for all accounts belonging to the current user from the Chart_of_Accounts table, ordered by creation date and ID in descending order to show the most recently created accounts first
-        String sql = """
-                SELECT id, account_name, account_type, created_at
-                  FROM Chart_of_Accounts
-                 WHERE user_id = ?
-                 ORDER BY created_at DESC, id DESC
-                """;
-
-        Set<String> postedNames = JournalEntryRepository.getPostedAccountNamesNormalized(userId); // Get the set of normalized account names that have posted transactions to check against when loading the accounts to determine which accounts should have editing disabled
-
-        // Execute the query to retrieve the accounts for the current user, and for each account, check if its normalized name is in the set of posted account names to determine if it should be added to the postedAccountIds set. Then add each account's information as a row in the accounts table model with the formatted date, time, account name, account type, and utility buttons. Finally, update the accounts count label with the number of accounts loaded into the table.
-        try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            accountIds.clear();
-            postedAccountIds.clear();
-
-            // Execute the query and process the result set to populate the accounts table model with the account information for the current user, while also keeping track of which accounts have posted transactions to disable editing for those accounts
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    int accountId = rs.getInt("id");
-                    String storedName = rs.getString("account_name");
-                    String storedType = rs.getString("account_type");
-                    String createdAt = rs.getString("created_at");
-                    String normalized = storedName != null ? storedName.trim().toUpperCase(Locale.ROOT) : "";
-                    if (postedNames.contains(normalized)) {
-                        postedAccountIds.add(accountId);
-                    }
+        if (accountReload != null) accountReload.cancel();
+        accountReload = accountLoads.submit(() -> userId != null ? fetchAccountRows(userId) : new AccountRows(), this::applyAccountRows);
+    }
 
-                    // Split the createdAt timestamp into date and time parts, and handle cases where the createdAt value might be null or not in the expected format to avoid errors when loading the accounts into the table
-                    String datePart = "";
-                    String timePart = "";
-                    if (createdAt != null) {
-                        String[] parts = createdAt.split(" ");
-                        if (parts.length >= 1) {
-                            datePart = parts[0];
-                        }
-                        if (parts.length >= 2) {
-                            timePart = parts[1];
-                        }
-                    }
+    // Put the fetched accounts into the table model and update the accounts count label. Runs on the Event Dispatch Thread.
+    private void applyAccountRows(AccountRows loaded) {
+        accountsTableModel.setRowCount(0);
+        accountIds.clear();
+        postedAccountIds.clear();
+        accountIds.addAll(loaded.ids);
+        postedAccountIds.addAll(loaded.postedIds);
+        for (Object[] row : loaded.rows) {
+            accountsTableModel.addRow(row);
+        }
+        if (accountsCountLabel != null) {
+            accountsCountLabel.setText(String.valueOf(accountsTableModel.getRowCount()));
+        }
+    }
 
-                    // Convert to 12-hour format with AM/PM
-                    String displayTime = timePart;
-                    try {
-                        if (!timePart.isEmpty()) {
-                            LocalTime t = LocalTime.parse(timePart);
-                            DateTimeFormatter fmt = DateTimeFormatter.ofPattern("hh:mm a");
-                            displayTime = t.format(fmt);
-                        }
-                    } catch (Exception ignore) {
-                        // Fallback to original if parsing fails
-                    }
+    // Read the accounts of the given user with their display values. Runs off the Event Dispatch Thread, so it must not touch any Swing component.
+    private static AccountRows fetchAccountRows(int userId) throws SQLException {
+        AccountRows loaded = new AccountRows();
 
-                    String displayName = ChartOfAccountsRepository.toTitleCase(storedName);
-                    String displayType = ChartOfAccountsRepository.toTitleCase(storedType);
+        Set<Integer> postedIds = JournalEntryRepository.getPostedAccountIds(userId); // Get the set of account ids that have posted transactions to determine which accounts should have editing disabled
 
-                    accountIds.add(accountId);
+        // Go through the current user's accounts (cached, most recently created first), and for each account, check if its id is in the set of posted account ids. Then build each account's row with the formatted date, time, account name, account type, and utility buttons.
+        for (ChartOfAccountsCache.Account account : ChartOfAccountsCache.accounts(userId)) {
+            int accountId = account.id;
+            String storedName = account.name;
+            String storedType = account.type;
+            String createdAt = account.createdAt;
+            if (postedIds.contains(accountId)) {
+                loaded.postedIds.add(accountId);
+            }
 
-                    accountsTableModel.addRow(new Object[]{
-                            datePart,
-                            displayTime,
-                            displayName,
-                            displayType,
-                            "Delete"
-                    });
+            // Split the createdAt timestamp into date and time parts, and handle cases where the createdAt value might be null or not in the expected format to avoid errors when loading the accounts into the table
+            String datePart = "";
+            String timePart = "";
+            if (createdAt != null) {
+                String[] parts = createdAt.split(" ");
+                if (parts.length >= 1) {
+                    datePart = parts[0];
+                }
+                if (parts.length >= 2) {
+                    timePart = parts[1];
                 }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        } finally {
-            if (accountsCountLabel != null) {
-                accountsCountLabel.setText(String.valueOf(accountsTableModel.getRowCount()));
+
+            // Convert to 12-hour format with AM/PM
+            String displayTime = timePart;
+            try {
+                if (!timePart.isEmpty()) {
+                    LocalTime t = LocalTime.parse(timePart);
+                    DateTimeFormatter fmt = DateTimeFormatter.ofPattern("hh:mm a");
+                    displayTime = t.format(fmt);
+                }
+            } catch (Exception ignore) {
+                // Fallback to original if parsing fails
             }
+
+            String displayName = ChartOfAccountsRepository.toTitleCase(storedName);
+            String displayType = ChartOfAccountsRepository.toTitleCase(storedType);
+
+            loaded.ids.add(accountId);
+            loaded.rows.add(new Object[]{
+                    datePart,
+                    displayTime,
+                    displayName,
+                    displayType,
+                    "Delete"
+            });
         }
+        return loaded;
     }
 
     //
@@ -750,16 +756,23 @@ public class CoA extends JFrame {
             Integer userId = Session.getUserId();
             if (userId != null) {
                 String deleteSql = "DELETE FROM Chart_of_Accounts WHERE id = ? AND user_id = ?";
+                boolean deleted = false;
                 try (Connection conn = DBConnection.connect();
                      PreparedStatement ps = conn.prepareStatement(deleteSql)) {
                     ps.setInt(1, accountId);
                     ps.setInt(2, userId);
                     ps.executeUpdate();
-                    ActivityLogRepository.log("remove", "chart_of_accounts", "Chart of Accounts account removed");
-                    NotificationRepository.insert(userId, "Account deleted: " + accountName);
+                    ChartOfAccountsCache.remove(userId, accountId);
+                    deleted = true;
                 } catch (SQLException ex) {
                     ex.printStackTrace();
                 }
+                // Logged once the writer is returned, so the write-behind queue can always drain
+                if (deleted) {
+                    ActivityLogRepository.log("remove", "chart_of_accounts", "Chart of Accounts account removed");
+                    NotificationRepository.insert(userId, "Account deleted: " + accountName);
+                    if (eventBus != null) eventBus.publish(new DomainEvent.AccountDeleted(accountId));
+                }
                 reloadAccountsTable();
             }
             dialog.dispose();
@@ -1,30 +1,343 @@
 package com.raven.main;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Central place to obtain a connection to the SQLite user database.
  *
- * The database file lives under {@code src/main/resources/database/users.db}.
- * This method returns a new connection each time it is called; the caller is
- * responsible for closing it (for example by using try-with-resources).
+ * The database file lives under {@code src/main/resources/database/app.db}.
+ * Connections are pooled: there is one long-lived writer connection and a
+ * small set of long-lived reader connections. Each physical connection is
+ * opened once, configured once (PRAGMAs are per-connection in SQLite) and
+ * then reused. Callers keep using try-with-resources; {@code close()} on a
+ * handed-out connection returns it to the pool instead of closing it.
+ *
+ * Pool settings can be changed with system properties:
+ * <ul>
+ *   <li>{@code accounting.db.url} – JDBC url (default points at app.db)</li>
+ *   <li>{@code accounting.db.readers} – number of reader connections (default 4)</li>
+ *   <li>{@code accounting.db.validateAfterMs} – idle time after which a
+ *       connection is health-checked before reuse (default 30000)</li>
+ *   <li>{@code accounting.db.borrowTimeoutMs} – how long to wait for a free
+ *       connection before giving up (default 5000)</li>
+ *   <li>{@code accounting.db.profile} – PRAGMA profile, see {@link DatabaseProfile}</li>
+ * </ul>
  */
 public class DBConnection {
 
     // Path is relative to the working directory when running the app.
     // Adjust if you move the database file.
-    private static final String URL = "jdbc:sqlite:src/main/resources/database/app.db";
+    private static final String DEFAULT_URL = "jdbc:sqlite:src/main/resources/database/app.db";
+
+    private static final String URL = System.getProperty("accounting.db.url", DEFAULT_URL);
+    private static final int READER_COUNT = Math.max(1, Integer.getInteger("accounting.db.readers", 4));
+    private static final long VALIDATE_AFTER_MS = Long.getLong("accounting.db.validateAfterMs", 30_000L);
+    private static final long BORROW_TIMEOUT_MS = Long.getLong("accounting.db.borrowTimeoutMs", 5_000L);
+    private static final int BUSY_TIMEOUT_MS = 5_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final DatabaseProfile PROFILE = DatabaseProfile.fromSystemProperty();
+
+    /** Reentrant so a method holding the writer can call another repository method that also writes. */
+    private static final ReentrantLock WRITER_LOCK = new ReentrantLock();
+    private static PhysicalConnection writer;
+
+    private static final BlockingQueue<PhysicalConnection> IDLE_READERS = new LinkedBlockingQueue<>();
+    private static final AtomicInteger OPEN_READERS = new AtomicInteger();
+
+    private static volatile boolean shutdown;
+
+    private DBConnection() {
+    }
 
     /**
-     * Open a new connection to the SQLite database.
+     * Borrow the writer connection. Use this for anything that modifies the
+     * database (or reads inside a write transaction). Only one thread can
+     * hold the writer at a time; the same thread may borrow it again while
+     * holding it, in which case the nested borrow shares the outer
+     * connection (and any transaction the outer caller has open).
      *
-     * @return an open {@link Connection}
+     * @return a pooled {@link Connection}; closing it returns it to the pool
      * @throws SQLException if the connection cannot be established
      */
     public static Connection connect() throws SQLException {
-        return DriverManager.getConnection(URL);
+        ensureOpen();
+        try {
+            if (!WRITER_LOCK.tryLock(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for the database writer connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the database writer connection.", e);
+        }
+
+        try {
+            if (WRITER_LOCK.getHoldCount() == 1) {
+                writer = healthy(writer, false);
+            }
+            return lease(writer, true, false);
+        } catch (SQLException | RuntimeException e) {
+            WRITER_LOCK.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Borrow one of the reader connections. Use this for plain SELECTs so
+     * dashboards and reports do not queue up behind writes. Reader
+     * connections are opened with {@code PRAGMA query_only}, so accidental
+     * writes fail fast.
+     *
+     * @return a pooled read-only {@link Connection}; closing it returns it to the pool
+     * @throws SQLException if the connection cannot be established
+     */
+    public static Connection connectForRead() throws SQLException {
+        ensureOpen();
+        PhysicalConnection reader = IDLE_READERS.poll();
+        if (reader == null && OPEN_READERS.incrementAndGet() <= READER_COUNT) {
+            try {
+                return lease(open(true), false, false);
+            } catch (SQLException | RuntimeException e) {
+                OPEN_READERS.decrementAndGet();
+                throw e;
+            }
+        }
+        if (reader == null) {
+            OPEN_READERS.decrementAndGet();
+            try {
+                reader = IDLE_READERS.poll(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database reader connection.", e);
+            }
+        }
+        if (reader == null) {
+            // Every reader is busy (e.g. a nested read while iterating another
+            // result set). Hand out a one-off connection rather than deadlock.
+            return lease(open(true), false, true);
+        }
+
+        try {
+            return lease(healthy(reader, true), false, false);
+        } catch (SQLException | RuntimeException e) {
+            OPEN_READERS.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /** @return the PRAGMA profile applied to every pooled connection. */
+    public static DatabaseProfile getProfile() {
+        return PROFILE;
+    }
+
+    /** @return true if the calling thread has borrowed the writer and not yet returned it */
+    public static boolean isWriterHeldByCurrentThread() {
+        return WRITER_LOCK.isHeldByCurrentThread();
+    }
+
+    /** @return true once {@link #shutdown()} has been called */
+    public static boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Close every pooled connection. Called once when the application exits.
+     */
+    public static void shutdown() {
+        shutdown = true;
+        PhysicalConnection reader;
+        while ((reader = IDLE_READERS.poll()) != null) {
+            closeQuietly(reader.raw);
+        }
+        try {
+            // Do not hang JVM exit behind a stuck writer; the OS reclaims the handle anyway.
+            if (!WRITER_LOCK.tryLock(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS)) return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            if (writer != null) {
+                closeQuietly(writer.raw);
+                writer = null;
+            }
+        } finally {
+            WRITER_LOCK.unlock();
+        }
+    }
+
+    private static void ensureOpen() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
     }
-}
 
+    /**
+     * Return the given connection if it is still usable, otherwise a freshly
+     * opened replacement. Connections that were idle only briefly are trusted
+     * without a round trip.
+     */
+    private static PhysicalConnection healthy(PhysicalConnection pc, boolean readOnly) throws SQLException {
+        if (pc != null) {
+            boolean stale = System.currentTimeMillis() - pc.lastUsedMs > VALIDATE_AFTER_MS;
+            if (!pc.raw.isClosed() && (!stale || pc.raw.isValid(VALIDATION_TIMEOUT_SECONDS))) {
+                return pc;
+            }
+            closeQuietly(pc.raw);
+        }
+        return open(readOnly);
+    }
+
+    private static PhysicalConnection open(boolean readOnly) throws SQLException {
+        Connection raw = DriverManager.getConnection(URL);
+        try {
+            configure(raw, readOnly);
+        } catch (SQLException e) {
+            closeQuietly(raw);
+            throw e;
+        }
+        return new PhysicalConnection(raw);
+    }
+
+    /** Per-connection PRAGMAs; applied once when the physical connection is opened. */
+    private static void configure(Connection raw, boolean readOnly) throws SQLException {
+        try (Statement stmt = raw.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = ON");
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            PROFILE.apply(stmt);
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = ON");
+            }
+        }
+    }
+
+    private static void release(PhysicalConnection pc, boolean isWriter, boolean overflow) {
+        if (isWriter) {
+            try {
+                if (WRITER_LOCK.getHoldCount() == 1) {
+                    resetQuietly(pc);
+                }
+            } finally {
+                WRITER_LOCK.unlock();
+            }
+            return;
+        }
+
+        if (overflow || shutdown) {
+            closeQuietly(pc.raw);
+            if (!overflow) OPEN_READERS.decrementAndGet();
+            return;
+        }
+        if (!resetQuietly(pc)) {
+            // Broken connection: drop it; a new one is opened on demand.
+            closeQuietly(pc.raw);
+            OPEN_READERS.decrementAndGet();
+            return;
+        }
+        IDLE_READERS.offer(pc);
+    }
+
+    /**
+     * Undo anything a caller left behind (an open transaction) so the next
+     * borrower starts clean. Returns false if the connection is unusable.
+     */
+    private static boolean resetQuietly(PhysicalConnection pc) {
+        try {
+            if (pc.raw.isClosed()) return false;
+            if (!pc.raw.getAutoCommit()) {
+                pc.raw.rollback();
+                pc.raw.setAutoCommit(true);
+            }
+            pc.lastUsedMs = System.currentTimeMillis();
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection raw) {
+        try {
+            raw.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Connection lease(PhysicalConnection pc, boolean isWriter, boolean overflow) {
+        return (Connection) Proxy.newProxyInstance(
+                DBConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Lease(pc, isWriter, overflow));
+    }
+
+    /** A physical SQLite connection owned by the pool. */
+    private static final class PhysicalConnection {
+        final Connection raw;
+        volatile long lastUsedMs;
+
+        PhysicalConnection(Connection raw) {
+            this.raw = raw;
+            this.lastUsedMs = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * The object callers actually see. Delegates everything to the physical
+     * connection except {@code close()}, which hands it back to the pool
+     * exactly once.
+     */
+    private static final class Lease implements InvocationHandler {
+        private final PhysicalConnection pc;
+        private final boolean isWriter;
+        private final boolean overflow;
+        private boolean returned;
+
+        Lease(PhysicalConnection pc, boolean isWriter, boolean overflow) {
+            this.pc = pc;
+            this.isWriter = isWriter;
+            this.overflow = overflow;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pc, isWriter, overflow);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pc.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (isWriter ? "writer" : "reader") + (returned ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            try {
+                return method.invoke(pc.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
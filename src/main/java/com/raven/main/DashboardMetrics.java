@@ -1,97 +1,55 @@
 package com.raven.main;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-
 // Utility class for computing financial metrics for the dashboard, such as total assets, liabilities, equity, and total revenue based on the current user's chart of accounts and journal entries
 public final class DashboardMetrics {
 
     private DashboardMetrics() {}
 
-    // Returns { totalAssets, totalLiabilities, totalEquity }. Equity is not derived; sum of equity account balances
-    public static double[] computeTotals() {
-        double totalAssets = 0, totalLiabilities = 0, totalEquity = 0;
-        Integer userId = Session.getUserId();
-        if (userId == null) return new double[]{0, 0, 0};
-
-        // Compute total assets, liabilities, and equity by iterating through the user's chart of accounts and summing the balances of accounts based on their type (asset, liability, equity). The method retrieves the account names and types from the database, calculates the balance for each account using journal entry lines, and categorizes the balances into total assets, total liabilities, and total equity based on the account type.
-        try (Connection conn = DBConnection.connect()) {
-            String accountsSql = "SELECT account_name, account_type FROM Chart_of_Accounts WHERE user_id = ?";
-
-            // Iterate through the user's chart of accounts and calculate the balance for each account, categorizing it into total assets, liabilities, or equity based on the account type. The method uses a helper method getAccountBalance to calculate the balance for each account by summing the debit and credit amounts from journal entry lines associated with that account.
-            try (PreparedStatement psAcc = conn.prepareStatement(accountsSql)) {
-                psAcc.setInt(1, userId);
-
-                try (ResultSet rsAcc = psAcc.executeQuery()) {
-                    while (rsAcc.next()) {
-                        String accName = rsAcc.getString("account_name");
-                        String accType = rsAcc.getString("account_type");
-                        double balance = getAccountBalance(conn, userId, accName, accType);
-                        String u = (accType != null ? accType : "").trim().toUpperCase();
-                        if ("ASSET".equals(u) || "ASSETS".equals(u)) {
-                            totalAssets += Math.abs(balance);
-                        } else if ("LIABILITY".equals(u) || "LIABILITIES".equals(u)) {
-                            totalLiabilities += Math.abs(balance);
-                        } else if ("EQUITY".equals(u)) {
-                            totalEquity += Math.abs(balance);
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+    /** Dashboard totals. Each is the sum of the absolute balances of the accounts of that type. */
+    public static final class Totals {
+        public final Money assets;
+        public final Money liabilities;
+        public final Money equity;
+        public final Money revenue;
+
+        Totals(Money assets, Money liabilities, Money equity, Money revenue) {
+            this.assets = assets;
+            this.liabilities = liabilities;
+            this.equity = equity;
+            this.revenue = revenue;
         }
-        return new double[]{totalAssets, totalLiabilities, totalEquity};
     }
 
-    // Total revenue from Income Statement: sum of all revenue account balances from journal entries
-    public static double computeTotalRevenue() {
-        double total = 0;
+    // Computes total assets, liabilities, equity (not derived; sum of equity account balances) and revenue from the stored per-account totals in account_balances; account types come from ChartOfAccountsCache
+    public static Totals computeTotals() {
+        long totalAssets = 0, totalLiabilities = 0, totalEquity = 0, totalRevenue = 0;
         Integer userId = Session.getUserId();
-        if (userId == null) return 0;
-        try (Connection conn = DBConnection.connect()) {
-            String sql = "SELECT account_name, account_type FROM Chart_of_Accounts WHERE user_id = ?";
-            try (PreparedStatement psAcc = conn.prepareStatement(sql)) {
-                psAcc.setInt(1, userId);
-                try (ResultSet rsAcc = psAcc.executeQuery()) {
-                    while (rsAcc.next()) {
-                        String accName = rsAcc.getString("account_name");
-                        String accType = rsAcc.getString("account_type");
-                        String u = (accType != null ? accType : "").trim().toUpperCase();
-                        if ("REVENUE".equals(u) || "REVENUES".equals(u)) {
-                            total += Math.abs(getAccountBalance(conn, userId, accName, accType));
-                        }
-                    }
+        if (userId == null) return new Totals(Money.ZERO, Money.ZERO, Money.ZERO, Money.ZERO);
+
+        // Accounts without lines have a zero balance and contribute nothing, so only posted accounts come back
+        try {
+            for (AccountBalanceRepository.AccountTotals t : AccountBalanceRepository.getTotalsForUser(userId).values()) {
+                ChartOfAccountsCache.Account account = ChartOfAccountsCache.byId(userId, t.accountId);
+                if (account == null) continue;
+                LedgerAccountRegistry.Kind kind = LedgerAccountRegistry.Kind.of(account.type);
+                long balance = signedBalance(kind, t.debitTotal, t.creditTotal);
+                switch (kind) {
+                    case ASSET: totalAssets += Math.abs(balance); break;
+                    case LIABILITY: totalLiabilities += Math.abs(balance); break;
+                    case EQUITY: totalEquity += Math.abs(balance); break;
+                    case REVENUE: totalRevenue += Math.abs(balance); break;
+                    default: break;
                 }
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
-        return total;
+        return new Totals(Money.ofMinor(totalAssets), Money.ofMinor(totalLiabilities),
+                Money.ofMinor(totalEquity), Money.ofMinor(totalRevenue));
     }
 
-    private static double getAccountBalance(Connection conn, int userId, String accountName, String accountType) throws SQLException {
-        String sql = """
-                SELECT l.debit, l.credit FROM journal_entry_lines l
-                JOIN journal_entry_headers h ON l.header_id = h.id
-                WHERE h.user_id = ? AND UPPER(TRIM(l.account_name)) = UPPER(TRIM(?))
-                """;
-        double balance = 0;
-        boolean isAssetOrExpense = "ASSET".equalsIgnoreCase(accountType) || "EXPENSE".equalsIgnoreCase(accountType) || "EXPENSES".equalsIgnoreCase(accountType);
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            ps.setString(2, accountName);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    double d = rs.getDouble("debit");
-                    double c = rs.getDouble("credit");
-                    if (isAssetOrExpense) balance += d - c;
-                    else balance += c - d;
-                }
-            }
-        }
-        return balance;
+    // Asset and expense accounts are debit-normal; liability, equity and revenue accounts are credit-normal
+    private static long signedBalance(LedgerAccountRegistry.Kind kind, long debit, long credit) {
+        return kind.isDebitNormal() ? debit - credit : credit - debit;
     }
 }
@@ -1,16 +1,61 @@
 package com.raven.main;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
 
 /**
  * Creates the core SQLite schema on application startup if it does not exist
  * yet. This is where we enforce that every data table is tied to a user
  * through a {@code user_id} foreign key.
+ *
+ * Schema changes are applied as numbered migrations. The number of the last
+ * applied migration is stored in {@code PRAGMA user_version}, so each one
+ * runs exactly once per database file, inside its own transaction. To change
+ * the schema, append a new migration to {@link #MIGRATIONS}; never edit one
+ * that has already shipped.
+ *
+ * Startup also switches the file to incremental {@code auto_vacuum}, so
+ * {@link RetentionCompactor} can give freed pages back without a full
+ * VACUUM while the app is in use.
  */
 public final class DatabaseInitializer {
 
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    /** One schema step. Runs inside a transaction on the writer connection. */
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(Connection conn, Statement stmt) throws SQLException;
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final MigrationStep step;
+
+        Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Base schema", (conn, stmt) -> createBaseSchema(stmt)),
+            new Migration(2, "journal_entry_headers.entry_name", DatabaseInitializer::addJournalEntryName),
+            new Migration(3, "Secondary indexes for per-user access paths", (conn, stmt) -> createAccessPathIndexes(stmt)),
+            new Migration(4, "journal_entry_lines.account_id", (conn, stmt) -> addLineAccountId(stmt)),
+            new Migration(5, "account_balances", (conn, stmt) -> createAccountBalances(stmt)),
+            new Migration(6, "journal_search full-text index", (conn, stmt) -> createJournalSearch(stmt)),
+            new Migration(7, "journal_entry_headers.entry_day", (conn, stmt) -> addEntryDay(stmt)),
+            new Migration(8, "period_closes", (conn, stmt) -> createPeriodCloses(stmt)),
+            new Migration(9, "Amounts as INTEGER minor units", (conn, stmt) -> convertAmountsToMinorUnits(stmt)),
+            new Migration(10, "activity_daily_counts", (conn, stmt) -> createActivityDailyCounts(stmt))
+    );
+
     private DatabaseInitializer() {
     }
 
@@ -18,154 +63,553 @@ public final class DatabaseInitializer {
         try (Connection conn = DBConnection.connect();
              Statement stmt = conn.createStatement()) {
 
-            // Always enable foreign keys in SQLite.
-            stmt.execute("PRAGMA foreign_keys = ON");
+            // foreign_keys, WAL and the rest of the PRAGMA profile are applied
+            // by DBConnection to every pooled connection, not just this one.
+            int current = getUserVersion(stmt);
+            for (Migration m : MIGRATIONS) {
+                if (m.version <= current) continue;
+                conn.setAutoCommit(false);
+                try {
+                    m.step.apply(conn, stmt);
+                    stmt.execute("PRAGMA user_version = " + m.version);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Schema migration " + m.version + " (" + m.description + ") failed", e);
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+            enableIncrementalVacuum(stmt);
 
-            // --- USERS ------------------------------------------------------
-            // Keep this aligned with the existing signUpPage SQL, which inserts
-            // into (first_name, last_name, email, password).
-            stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS users (
-                        id          INTEGER PRIMARY KEY AUTOINCREMENT,
-                        first_name  TEXT    NOT NULL,
-                        last_name   TEXT    NOT NULL,
-                        email       TEXT    NOT NULL UNIQUE,
-                        password    TEXT    NOT NULL
-                    );
-                    """);
+        } catch (SQLException e) {
+            // For a desktop app, logging to stderr is acceptable.
+            e.printStackTrace();
+        }
+    }
 
-            // --- ASSETS -----------------------------------------------------
-            stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS assets (
-                        id          INTEGER PRIMARY KEY AUTOINCREMENT,
-                        user_id     INTEGER NOT NULL,
-                        name        TEXT    NOT NULL,
-                        amount      REAL    NOT NULL,
-                        created_at  TEXT    NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                    );
-                    """);
+    /** @return the last migration applied to the open database (0 for a new or legacy file). */
+    public static int getSchemaVersion() {
+        try (Connection conn = DBConnection.connectForRead();
+             Statement stmt = conn.createStatement()) {
+            return getUserVersion(stmt);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
 
-            // --- LIABILITIES -----------------------------------------------
-            stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS liabilities (
-                        id          INTEGER PRIMARY KEY AUTOINCREMENT,
-                        user_id     INTEGER NOT NULL,
-                        name        TEXT    NOT NULL,
-                        amount      REAL    NOT NULL,
-                        created_at  TEXT    NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                    );
-                    """);
+    /**
+     * Switch the file to incremental auto_vacuum if it is not already. The
+     * mode of an existing file only changes with a full VACUUM, so this runs
+     * once, here, before any window opens, instead of blocking saves later.
+     */
+    private static void enableIncrementalVacuum(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+            if (rs.next() && rs.getInt(1) == AUTO_VACUUM_INCREMENTAL) return;
+        }
+        stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+        stmt.execute("VACUUM");
+    }
 
-            // --- EQUITY ----------------------------------------------------
-            stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS equity (
-                        id          INTEGER PRIMARY KEY AUTOINCREMENT,
-                        user_id     INTEGER NOT NULL,
-                        name        TEXT    NOT NULL,
-                        amount      REAL    NOT NULL,
-                        created_at  TEXT    NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                    );
-                    """);
+    private static int getUserVersion(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
 
-            // --- JOURNAL ENTRIES ------------------------------------------
-            stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS journal_entries (
-                        id              INTEGER PRIMARY KEY AUTOINCREMENT,
-                        user_id         INTEGER NOT NULL,
-                        entry_date      TEXT    NOT NULL,
-                        description     TEXT,
-                        debit_account   TEXT    NOT NULL,
-                        credit_account  TEXT    NOT NULL,
-                        amount          REAL    NOT NULL,
-                        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                    );
-                    """);
+    private static boolean hasColumn(Statement stmt, String table, String column) throws SQLException {
+        // table_xinfo, unlike table_info, also lists generated columns
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_xinfo(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) return true;
+            }
+        }
+        return false;
+    }
 
-            // --- REPORTS ---------------------------------------------------
-            stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS reports (
-                        id          INTEGER PRIMARY KEY AUTOINCREMENT,
-                        user_id     INTEGER NOT NULL,
-                        type        TEXT    NOT NULL,
-                        period_from TEXT    NOT NULL,
-                        period_to   TEXT    NOT NULL,
-                        created_at  TEXT    NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                    );
-                    """);
+    // ----- Migration 1 ------------------------------------------------------
 
-            // --- CHART OF ACCOUNTS -----------------------------------------
-            stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS Chart_of_Accounts (
-                        id           INTEGER PRIMARY KEY AUTOINCREMENT,
-                        user_id      INTEGER NOT NULL,
-                        account_name TEXT    NOT NULL,
-                        account_type TEXT    NOT NULL,
-                        created_at   TEXT    NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                    );
-                    """);
+    private static void createBaseSchema(Statement stmt) throws SQLException {
+        // --- USERS ------------------------------------------------------
+        // Keep this aligned with the existing signUpPage SQL, which inserts
+        // into (first_name, last_name, email, password).
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS users (
+                    id          INTEGER PRIMARY KEY AUTOINCREMENT,
+                    first_name  TEXT    NOT NULL,
+                    last_name   TEXT    NOT NULL,
+                    email       TEXT    NOT NULL UNIQUE,
+                    password    TEXT    NOT NULL
+                );
+                """);
 
-            // --- JOURNAL ENTRY HEADERS -------------------------------------
-            stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS journal_entry_headers (
-                        id               INTEGER PRIMARY KEY AUTOINCREMENT,
-                        user_id          INTEGER NOT NULL,
-                        entry_name       TEXT,
-                        created_at       TEXT    NOT NULL,
-                        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                    );
-                    """);
-            // Add entry_name if table already existed without it
-            try {
-                stmt.execute("ALTER TABLE journal_entry_headers ADD COLUMN entry_name TEXT");
-            } catch (SQLException e) {
-                // Column already exists
-            }
+        // --- ASSETS -----------------------------------------------------
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS assets (
+                    id          INTEGER PRIMARY KEY AUTOINCREMENT,
+                    user_id     INTEGER NOT NULL,
+                    name        TEXT    NOT NULL,
+                    amount      REAL    NOT NULL,
+                    created_at  TEXT    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                );
+                """);
 
-            // --- JOURNAL ENTRY LINES ---------------------------------------
-            stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS journal_entry_lines (
-                        id           INTEGER PRIMARY KEY AUTOINCREMENT,
-                        header_id    INTEGER NOT NULL,
-                        account_name TEXT    NOT NULL,
-                        debit        REAL   NOT NULL DEFAULT 0,
-                        credit       REAL   NOT NULL DEFAULT 0,
-                        FOREIGN KEY (header_id) REFERENCES journal_entry_headers(id) ON DELETE CASCADE
-                    );
-                    """);
+        // --- LIABILITIES -----------------------------------------------
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS liabilities (
+                    id          INTEGER PRIMARY KEY AUTOINCREMENT,
+                    user_id     INTEGER NOT NULL,
+                    name        TEXT    NOT NULL,
+                    amount      REAL    NOT NULL,
+                    created_at  TEXT    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                );
+                """);
+
+        // --- EQUITY ----------------------------------------------------
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS equity (
+                    id          INTEGER PRIMARY KEY AUTOINCREMENT,
+                    user_id     INTEGER NOT NULL,
+                    name        TEXT    NOT NULL,
+                    amount      REAL    NOT NULL,
+                    created_at  TEXT    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                );
+                """);
+
+        // --- JOURNAL ENTRIES ------------------------------------------
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS journal_entries (
+                    id              INTEGER PRIMARY KEY AUTOINCREMENT,
+                    user_id         INTEGER NOT NULL,
+                    entry_date      TEXT    NOT NULL,
+                    description     TEXT,
+                    debit_account   TEXT    NOT NULL,
+                    credit_account  TEXT    NOT NULL,
+                    amount          REAL    NOT NULL,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                );
+                """);
+
+        // --- REPORTS ---------------------------------------------------
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS reports (
+                    id          INTEGER PRIMARY KEY AUTOINCREMENT,
+                    user_id     INTEGER NOT NULL,
+                    type        TEXT    NOT NULL,
+                    period_from TEXT    NOT NULL,
+                    period_to   TEXT    NOT NULL,
+                    created_at  TEXT    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                );
+                """);
+
+        // --- CHART OF ACCOUNTS -----------------------------------------
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS Chart_of_Accounts (
+                    id           INTEGER PRIMARY KEY AUTOINCREMENT,
+                    user_id      INTEGER NOT NULL,
+                    account_name TEXT    NOT NULL,
+                    account_type TEXT    NOT NULL,
+                    created_at   TEXT    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                );
+                """);
+
+        // --- JOURNAL ENTRY HEADERS -------------------------------------
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS journal_entry_headers (
+                    id               INTEGER PRIMARY KEY AUTOINCREMENT,
+                    user_id          INTEGER NOT NULL,
+                    entry_name       TEXT,
+                    created_at       TEXT    NOT NULL,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                );
+                """);
 
-            // --- ACTIVITY LOG (user-specific recent actions for dashboard) ---
+        // --- JOURNAL ENTRY LINES ---------------------------------------
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS journal_entry_lines (
+                    id           INTEGER PRIMARY KEY AUTOINCREMENT,
+                    header_id    INTEGER NOT NULL,
+                    account_name TEXT    NOT NULL,
+                    debit        REAL   NOT NULL DEFAULT 0,
+                    credit       REAL   NOT NULL DEFAULT 0,
+                    FOREIGN KEY (header_id) REFERENCES journal_entry_headers(id) ON DELETE CASCADE
+                );
+                """);
+
+        // --- ACTIVITY LOG (user-specific recent actions for dashboard) ---
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS activity_log (
+                    id            INTEGER PRIMARY KEY AUTOINCREMENT,
+                    user_id       INTEGER NOT NULL,
+                    activity_type TEXT    NOT NULL,
+                    entity_type   TEXT    NOT NULL,
+                    description   TEXT,
+                    created_at    TEXT    NOT NULL DEFAULT (datetime('now','localtime')),
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                );
+                """);
+
+        // --- NOTIFICATIONS (persisted, visible after re-login) ---
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS notifications (
+                    id         INTEGER PRIMARY KEY AUTOINCREMENT,
+                    user_id    INTEGER NOT NULL,
+                    message    TEXT    NOT NULL,
+                    created_at TEXT    NOT NULL DEFAULT (datetime('now','localtime')),
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                );
+                """);
+    }
+
+    // ----- Migration 2 ------------------------------------------------------
+
+    // Databases created before entry names existed have headers without the column.
+    private static void addJournalEntryName(Connection conn, Statement stmt) throws SQLException {
+        if (!hasColumn(stmt, "journal_entry_headers", "entry_name")) {
+            stmt.execute("ALTER TABLE journal_entry_headers ADD COLUMN entry_name TEXT");
+        }
+    }
+
+    // ----- Migration 3 ------------------------------------------------------
+
+    /**
+     * Indexes for the queries every screen runs. Account-name lookups compare
+     * on UPPER(TRIM(account_name)), so those are expression indexes and the
+     * queries must use exactly that expression to hit them.
+     */
+    private static void createAccessPathIndexes(Statement stmt) throws SQLException {
+        // Journal list / reports: headers of one user, by id or by date.
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_journal_entry_headers_user_id ON journal_entry_headers(user_id, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_journal_entry_headers_user_created ON journal_entry_headers(user_id, created_at)");
+
+        // Lines of one header in insertion order; covers the columns every loader reads.
+        stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_journal_entry_lines_header
+                    ON journal_entry_lines(header_id, id, account_name, debit, credit)
+                """);
+        // Lines of one account (ledger, balances, account renames).
+        stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_journal_entry_lines_account_norm
+                    ON journal_entry_lines(UPPER(TRIM(account_name)), header_id)
+                """);
+
+        // Chart of Accounts: exact-name duplicate check and normalized-name lookups.
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_coa_user_name ON Chart_of_Accounts(user_id, account_name)");
+        stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_coa_user_name_norm
+                    ON Chart_of_Accounts(user_id, UPPER(TRIM(account_name)), account_type)
+                """);
+
+        // Dashboard panels: most recent rows of one user.
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_activity_log_user_id ON activity_log(user_id, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_notifications_user_id ON notifications(user_id, id)");
+
+        stmt.execute("ANALYZE");
+    }
+
+    // ----- Migration 4 ------------------------------------------------------
+
+    /**
+     * Lines reference their account by id instead of by name. Existing lines
+     * are linked to the account of the same (normalized) name in their
+     * owner's Chart of Accounts; lines whose name matches no account keep a
+     * NULL id and their stored name. Deleting an account unlinks its lines.
+     */
+    private static void addLineAccountId(Statement stmt) throws SQLException {
+        if (!hasColumn(stmt, "journal_entry_lines", "account_id")) {
             stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS activity_log (
-                        id            INTEGER PRIMARY KEY AUTOINCREMENT,
-                        user_id       INTEGER NOT NULL,
-                        activity_type TEXT    NOT NULL,
-                        entity_type   TEXT    NOT NULL,
-                        description   TEXT,
-                        created_at    TEXT    NOT NULL DEFAULT (datetime('now','localtime')),
-                        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                    );
+                    ALTER TABLE journal_entry_lines
+                        ADD COLUMN account_id INTEGER REFERENCES Chart_of_Accounts(id) ON DELETE SET NULL
                     """);
+        }
+        stmt.execute("""
+                UPDATE journal_entry_lines
+                   SET account_id = (SELECT c.id
+                                       FROM journal_entry_headers h
+                                       JOIN Chart_of_Accounts c ON c.user_id = h.user_id
+                                      WHERE h.id = journal_entry_lines.header_id
+                                        AND UPPER(TRIM(c.account_name)) = UPPER(TRIM(journal_entry_lines.account_name))
+                                      ORDER BY c.id
+                                      LIMIT 1)
+                 WHERE account_id IS NULL
+                """);
+
+        // Balance and ledger queries now filter on account_id; the name index is no longer used.
+        stmt.execute("DROP INDEX IF EXISTS idx_journal_entry_lines_account_norm");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_journal_entry_lines_account ON journal_entry_lines(account_id, header_id)");
+        // Loaders now read account_id too; rebuild the covering index with it.
+        stmt.execute("DROP INDEX IF EXISTS idx_journal_entry_lines_header");
+        stmt.execute("""
+                CREATE INDEX idx_journal_entry_lines_header
+                    ON journal_entry_lines(header_id, id, account_id, account_name, debit, credit)
+                """);
+        stmt.execute("ANALYZE");
+    }
+
+    // ----- Migration 5 ------------------------------------------------------
+
+    /** Per-account debit/credit totals, maintained by {@link AccountBalanceRepository}. */
+    private static void createAccountBalances(Statement stmt) throws SQLException {
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS account_balances (
+                    user_id      INTEGER NOT NULL,
+                    account_id   INTEGER NOT NULL,
+                    debit_total  REAL    NOT NULL DEFAULT 0,
+                    credit_total REAL    NOT NULL DEFAULT 0,
+                    line_count   INTEGER NOT NULL DEFAULT 0,
+                    PRIMARY KEY (user_id, account_id),
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                    FOREIGN KEY (account_id) REFERENCES Chart_of_Accounts(id) ON DELETE CASCADE
+                ) WITHOUT ROWID
+                """);
+        AccountBalanceRepository.rebuild(stmt);
+    }
+
+    // ----- Migration 6 ------------------------------------------------------
+
+    // Searchable text of one header: its current account names and amounts, built from its lines
+    private static final String SEARCH_LINES_OF = """
+            (SELECT group_concat(COALESCE(c.account_name, l.account_name), ' ')
+               FROM journal_entry_lines l
+               LEFT JOIN Chart_of_Accounts c ON c.id = l.account_id
+              WHERE l.header_id = %1$s),
+            (SELECT group_concat(printf('%%.2f', MAX(l.debit, l.credit)), ' ')
+               FROM journal_entry_lines l
+              WHERE l.header_id = %1$s)
+            """;
+
+    /**
+     * FTS5 index with one row per journal entry header (rowid = header id),
+     * kept in sync by triggers on headers, lines and account renames. Used
+     * by {@link JournalEntryRepository#searchHeaderIds}.
+     */
+    private static void createJournalSearch(Statement stmt) throws SQLException {
+        stmt.execute("""
+                CREATE VIRTUAL TABLE IF NOT EXISTS journal_search USING fts5(
+                    user_id UNINDEXED,
+                    entry_name,
+                    account_names,
+                    amounts,
+                    tokenize = 'unicode61',
+                    prefix = '1 2 3'
+                )
+                """);
 
-            // --- NOTIFICATIONS (persisted, visible after re-login) ---
+        stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS journal_search_header_insert
+                AFTER INSERT ON journal_entry_headers BEGIN
+                    INSERT INTO journal_search (rowid, user_id, entry_name, account_names, amounts)
+                    VALUES (new.id, new.user_id, new.entry_name, '', '');
+                END
+                """);
+        stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS journal_search_header_update
+                AFTER UPDATE OF entry_name ON journal_entry_headers BEGIN
+                    UPDATE journal_search SET entry_name = new.entry_name WHERE rowid = new.id;
+                END
+                """);
+        stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS journal_search_header_delete
+                AFTER DELETE ON journal_entry_headers BEGIN
+                    DELETE FROM journal_search WHERE rowid = old.id;
+                END
+                """);
+
+        createLineSearchTriggers(stmt, SEARCH_LINES_OF);
+    }
+
+    /**
+     * Triggers keeping the account names and amounts of journal_search in
+     * step with the lines, then a full re-index. {@code linesOf} is the
+     * searchable text expression for one header.
+     */
+    private static void createLineSearchTriggers(Statement stmt, String linesOf) throws SQLException {
+        String refreshNew = "UPDATE journal_search SET (account_names, amounts) = ("
+                + String.format(linesOf, "new.header_id") + ") WHERE rowid = new.header_id;";
+        String refreshOld = "UPDATE journal_search SET (account_names, amounts) = ("
+                + String.format(linesOf, "old.header_id") + ") WHERE rowid = old.header_id;";
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS journal_search_line_insert AFTER INSERT ON journal_entry_lines BEGIN "
+                + refreshNew + " END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS journal_search_line_update AFTER UPDATE ON journal_entry_lines BEGIN "
+                + refreshOld + " " + refreshNew + " END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS journal_search_line_delete AFTER DELETE ON journal_entry_lines BEGIN "
+                + refreshOld + " END");
+        // Lines show the account's current name, so a rename re-indexes every entry that uses the account
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS journal_search_account_rename AFTER UPDATE OF account_name ON Chart_of_Accounts BEGIN "
+                + "UPDATE journal_search SET (account_names, amounts) = ("
+                + String.format(linesOf, "journal_search.rowid")
+                + ") WHERE rowid IN (SELECT header_id FROM journal_entry_lines WHERE account_id = new.id); END");
+
+        stmt.execute("DELETE FROM journal_search");
+        stmt.execute("INSERT INTO journal_search (rowid, user_id, entry_name, account_names, amounts) "
+                + "SELECT h.id, h.user_id, h.entry_name, " + String.format(linesOf, "h.id")
+                + " FROM journal_entry_headers h");
+    }
+
+    // ----- Migration 7 ------------------------------------------------------
+
+    /**
+     * Calendar day of each header as an integer (days since 1970-01-01, the
+     * same as {@code LocalDate.toEpochDay()}), derived from created_at so
+     * no writer has to maintain it. As-of-date reports compare on this
+     * column through the (user_id, entry_day) index instead of comparing
+     * created_at strings.
+     */
+    private static void addEntryDay(Statement stmt) throws SQLException {
+        if (!hasColumn(stmt, "journal_entry_headers", "entry_day")) {
             stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS notifications (
-                        id         INTEGER PRIMARY KEY AUTOINCREMENT,
-                        user_id    INTEGER NOT NULL,
-                        message    TEXT    NOT NULL,
-                        created_at TEXT    NOT NULL DEFAULT (datetime('now','localtime')),
-                        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                    );
+                    ALTER TABLE journal_entry_headers
+                        ADD COLUMN entry_day INTEGER
+                        GENERATED ALWAYS AS (CAST(julianday(substr(created_at, 1, 10)) - 2440587.5 AS INTEGER)) VIRTUAL
                     """);
-
-        } catch (SQLException e) {
-            // For a desktop app, logging to stderr is acceptable.
-            e.printStackTrace();
         }
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_journal_entry_headers_user_day ON journal_entry_headers(user_id, entry_day)");
+        stmt.execute("ANALYZE");
     }
-}
 
+    // ----- Migration 8 ------------------------------------------------------
+
+    /**
+     * Month-end closing totals per account, written and invalidated by
+     * {@link PeriodCloseRepository}. A period_closes row marks the close as
+     * complete; its balances go with it when it is invalidated.
+     */
+    private static void createPeriodCloses(Statement stmt) throws SQLException {
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS period_closes (
+                    user_id    INTEGER NOT NULL,
+                    period_end INTEGER NOT NULL,
+                    closed_at  TEXT    NOT NULL DEFAULT (datetime('now','localtime')),
+                    PRIMARY KEY (user_id, period_end),
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                ) WITHOUT ROWID
+                """);
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS period_close_balances (
+                    user_id      INTEGER NOT NULL,
+                    period_end   INTEGER NOT NULL,
+                    account_id   INTEGER NOT NULL,
+                    debit_total  REAL    NOT NULL DEFAULT 0,
+                    credit_total REAL    NOT NULL DEFAULT 0,
+                    line_count   INTEGER NOT NULL DEFAULT 0,
+                    PRIMARY KEY (user_id, period_end, account_id),
+                    FOREIGN KEY (user_id, period_end) REFERENCES period_closes(user_id, period_end) ON DELETE CASCADE,
+                    FOREIGN KEY (account_id) REFERENCES Chart_of_Accounts(id) ON DELETE CASCADE
+                ) WITHOUT ROWID
+                """);
+    }
+
+    // ----- Migration 9 ------------------------------------------------------
+
+    // Same searchable text as SEARCH_LINES_OF, for amounts stored in minor units
+    private static final String SEARCH_LINES_OF_MINOR = """
+            (SELECT group_concat(COALESCE(c.account_name, l.account_name), ' ')
+               FROM journal_entry_lines l
+               LEFT JOIN Chart_of_Accounts c ON c.id = l.account_id
+              WHERE l.header_id = %1$s),
+            (SELECT group_concat(printf('%%.2f', MAX(l.debit, l.credit) / 100.0), ' ')
+               FROM journal_entry_lines l
+              WHERE l.header_id = %1$s)
+            """;
+
+    /**
+     * Amounts become exact: every debit, credit and total column is an
+     * INTEGER count of minor units (centavos), read and written through
+     * {@link Money}. SQLite cannot change a column's type in place, so
+     * journal_entry_lines is rebuilt (with its indexes and search triggers);
+     * account_balances is recreated and recomputed, and period closes are
+     * dropped to be written again on demand.
+     */
+    private static void convertAmountsToMinorUnits(Statement stmt) throws SQLException {
+        stmt.execute("""
+                CREATE TABLE journal_entry_lines_minor (
+                    id           INTEGER PRIMARY KEY AUTOINCREMENT,
+                    header_id    INTEGER NOT NULL,
+                    account_name TEXT    NOT NULL,
+                    debit        INTEGER NOT NULL DEFAULT 0,
+                    credit       INTEGER NOT NULL DEFAULT 0,
+                    account_id   INTEGER REFERENCES Chart_of_Accounts(id) ON DELETE SET NULL,
+                    FOREIGN KEY (header_id) REFERENCES journal_entry_headers(id) ON DELETE CASCADE
+                )
+                """);
+        // Lines whose header or account was deleted before foreign keys were enforced are not carried
+        // over as such: orphaned lines were unreachable already, and dangling account ids become NULL
+        stmt.execute("""
+                INSERT INTO journal_entry_lines_minor (id, header_id, account_name, debit, credit, account_id)
+                SELECT l.id, l.header_id, l.account_name,
+                       CAST(ROUND(l.debit * 100) AS INTEGER), CAST(ROUND(l.credit * 100) AS INTEGER), c.id
+                  FROM journal_entry_lines l
+                  JOIN journal_entry_headers h ON h.id = l.header_id
+                  LEFT JOIN Chart_of_Accounts c ON c.id = l.account_id
+                """);
+        // Dropping the table also drops its indexes and the search triggers on it
+        stmt.execute("DROP TRIGGER IF EXISTS journal_search_account_rename");
+        stmt.execute("DROP TABLE journal_entry_lines");
+        stmt.execute("ALTER TABLE journal_entry_lines_minor RENAME TO journal_entry_lines");
+        stmt.execute("CREATE INDEX idx_journal_entry_lines_account ON journal_entry_lines(account_id, header_id)");
+        stmt.execute("""
+                CREATE INDEX idx_journal_entry_lines_header
+                    ON journal_entry_lines(header_id, id, account_id, account_name, debit, credit)
+                """);
+        createLineSearchTriggers(stmt, SEARCH_LINES_OF_MINOR);
+
+        stmt.execute("DROP TABLE account_balances");
+        stmt.execute("""
+                CREATE TABLE account_balances (
+                    user_id      INTEGER NOT NULL,
+                    account_id   INTEGER NOT NULL,
+                    debit_total  INTEGER NOT NULL DEFAULT 0,
+                    credit_total INTEGER NOT NULL DEFAULT 0,
+                    line_count   INTEGER NOT NULL DEFAULT 0,
+                    PRIMARY KEY (user_id, account_id),
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                    FOREIGN KEY (account_id) REFERENCES Chart_of_Accounts(id) ON DELETE CASCADE
+                ) WITHOUT ROWID
+                """);
+        AccountBalanceRepository.rebuild(stmt);
+
+        stmt.execute("DROP TABLE period_close_balances");
+        stmt.execute("DELETE FROM period_closes");
+        stmt.execute("""
+                CREATE TABLE period_close_balances (
+                    user_id      INTEGER NOT NULL,
+                    period_end   INTEGER NOT NULL,
+                    account_id   INTEGER NOT NULL,
+                    debit_total  INTEGER NOT NULL DEFAULT 0,
+                    credit_total INTEGER NOT NULL DEFAULT 0,
+                    line_count   INTEGER NOT NULL DEFAULT 0,
+                    PRIMARY KEY (user_id, period_end, account_id),
+                    FOREIGN KEY (user_id, period_end) REFERENCES period_closes(user_id, period_end) ON DELETE CASCADE,
+                    FOREIGN KEY (account_id) REFERENCES Chart_of_Accounts(id) ON DELETE CASCADE
+                ) WITHOUT ROWID
+                """);
+        stmt.execute("ANALYZE");
+    }
+
+    // ----- Migration 10 -----------------------------------------------------
+
+    /**
+     * Daily per-type activity counts, the archive of activity_log rows that
+     * {@link RetentionCompactor} removes. {@code day} is the date part of
+     * their created_at.
+     */
+    private static void createActivityDailyCounts(Statement stmt) throws SQLException {
+        stmt.execute("""
+                CREATE TABLE IF NOT EXISTS activity_daily_counts (
+                    user_id       INTEGER NOT NULL,
+                    day           TEXT    NOT NULL,
+                    activity_type TEXT    NOT NULL,
+                    entity_type   TEXT    NOT NULL,
+                    count         INTEGER NOT NULL,
+                    PRIMARY KEY (user_id, day, activity_type, entity_type),
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                ) WITHOUT ROWID
+                """);
+    }
+}
@@ -0,0 +1,72 @@
+package com.raven.main;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * Named sets of SQLite PRAGMAs applied by {@link DBConnection} to every
+ * connection it opens. Select one with the {@code accounting.db.profile}
+ * system property (for example {@code -Daccounting.db.profile=LARGE_BOOKS});
+ * when the property is missing or unknown, {@link #BALANCED} is used.
+ *
+ * WAL lets the dashboard and reports keep reading while a journal entry is
+ * being saved, and {@code synchronous=NORMAL} is the recommended pairing for
+ * WAL (still crash-safe, one fsync per checkpoint instead of per commit).
+ */
+public enum DatabaseProfile {
+
+    /** SQLite defaults: rollback journal, full sync, ~2 MB cache, no mmap. */
+    LEGACY("DELETE", "FULL", -2_000, 0L, "DEFAULT"),
+
+    /** WAL, 16 MB page cache, 64 MB memory-mapped I/O. Good for typical books. */
+    BALANCED("WAL", "NORMAL", -16_000, 64L * 1024 * 1024, "MEMORY"),
+
+    /** WAL, 64 MB page cache, 256 MB memory-mapped I/O for multi-year books. */
+    LARGE_BOOKS("WAL", "NORMAL", -64_000, 256L * 1024 * 1024, "MEMORY");
+
+    public static final String SYSTEM_PROPERTY = "accounting.db.profile";
+
+    private final String journalMode;
+    private final String synchronous;
+    /** Negative values are KiB, positive values are pages (SQLite convention). */
+    private final int cacheSize;
+    private final long mmapSize;
+    private final String tempStore;
+
+    DatabaseProfile(String journalMode, String synchronous, int cacheSize, long mmapSize, String tempStore) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+    }
+
+    /**
+     * @return the profile named by the {@code accounting.db.profile} system
+     *         property, or {@link #BALANCED} if none (or an unknown one) is set.
+     */
+    public static DatabaseProfile fromSystemProperty() {
+        String name = System.getProperty(SYSTEM_PROPERTY);
+        if (name == null || name.isBlank()) return BALANCED;
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown " + SYSTEM_PROPERTY + " '" + name + "', using " + BALANCED);
+            return BALANCED;
+        }
+    }
+
+    /**
+     * Apply this profile's PRAGMAs on the given connection. Must run before
+     * {@code PRAGMA query_only} because switching the journal mode writes to
+     * the database header.
+     */
+    void apply(Statement stmt) throws SQLException {
+        stmt.execute("PRAGMA journal_mode = " + journalMode);
+        stmt.execute("PRAGMA synchronous = " + synchronous);
+        stmt.execute("PRAGMA cache_size = " + cacheSize);
+        stmt.execute("PRAGMA mmap_size = " + mmapSize);
+        stmt.execute("PRAGMA temp_store = " + tempStore);
+    }
+}
@@ -0,0 +1,166 @@
+package com.raven.main;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Runs a search box query off the Event Dispatch Thread.
+ *
+ * Keystrokes that arrive within the coalescing window are merged into one
+ * query. Queries run on one daemon thread shared by every search box, so a
+ * screen that is thrown away (e.g. on logout) leaves no thread behind. A
+ * query that is superseded by newer input is cancelled (if it has not
+ * started) or has its result dropped (if it has), so only the result for
+ * the latest text is ever handed to the UI, on the EDT.
+ *
+ * The window defaults to {@value #DEFAULT_WINDOW_MS} ms and can be changed
+ * with the {@code accounting.search.debounceMs} system property. Set
+ * {@code accounting.search.logLatency=true} to print every query's latency
+ * to stderr.
+ *
+ * @param <R> the search result type
+ */
+public final class DebouncedSearch<R> {
+
+    public static final long DEFAULT_WINDOW_MS = 150;
+
+    private static final boolean LOG_LATENCY = Boolean.getBoolean("accounting.search.logLatency");
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "debounced-search");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** The query itself. Runs on the background thread. */
+    @FunctionalInterface
+    public interface Query<R> {
+        /**
+         * @param text      the search box text
+         * @param cancelled true once newer input has superseded this query;
+         *                  long queries may check it between steps and give up
+         * @return the result, or null to discard it
+         */
+        R run(String text, BooleanSupplier cancelled) throws Exception;
+    }
+
+    /** Timings of one completed query. */
+    public static final class Latency {
+        public final String text;
+        /** Time from the keystroke that triggered the query until it started (includes the window). */
+        public final long waitMs;
+        /** Time spent running the query on the background thread. */
+        public final long queryMs;
+        /** Time from the keystroke until the result was applied on the EDT. */
+        public final long totalMs;
+
+        Latency(String text, long waitMs, long queryMs, long totalMs) {
+            this.text = text;
+            this.waitMs = waitMs;
+            this.queryMs = queryMs;
+            this.totalMs = totalMs;
+        }
+
+        @Override
+        public String toString() {
+            return "'" + text + "': wait " + waitMs + " ms, query " + queryMs + " ms, total " + totalMs + " ms";
+        }
+    }
+
+    private final String name;
+    private final long windowMs;
+    private final Query<R> query;
+    private final Consumer<R> onResult;
+
+    /** Incremented for every submission; a query is stale once this moves past its own number. */
+    private final AtomicLong generation = new AtomicLong();
+    private ScheduledFuture<?> pending;
+    private boolean shutdown;
+    private volatile Latency lastLatency;
+    private Consumer<Latency> latencyListener;
+
+    /**
+     * @param name     used in latency log lines
+     * @param query    runs the search off the EDT
+     * @param onResult receives the latest result on the EDT
+     */
+    public DebouncedSearch(String name, Query<R> query, Consumer<R> onResult) {
+        this(name, Long.getLong("accounting.search.debounceMs", DEFAULT_WINDOW_MS), query, onResult);
+    }
+
+    public DebouncedSearch(String name, long windowMs, Query<R> query, Consumer<R> onResult) {
+        this.name = name;
+        this.windowMs = Math.max(0, windowMs);
+        this.query = query;
+        this.onResult = onResult;
+    }
+
+    /** Queue a query for the given text once input has been quiet for the coalescing window. */
+    public synchronized void submit(String text) {
+        schedule(text, windowMs);
+    }
+
+    /** Run a query for the given text right away (e.g. after the data changed), superseding any pending one. */
+    public synchronized void submitNow(String text) {
+        schedule(text, 0);
+    }
+
+    private void schedule(String text, long delayMs) {
+        if (shutdown) return;
+        long myGeneration = generation.incrementAndGet();
+        long submittedAt = System.nanoTime();
+        if (pending != null) pending.cancel(false);
+        pending = EXECUTOR.schedule(() -> execute(text, myGeneration, submittedAt), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void execute(String text, long myGeneration, long submittedAt) {
+        BooleanSupplier cancelled = () -> generation.get() != myGeneration;
+        if (cancelled.getAsBoolean()) return;
+        long startedAt = System.nanoTime();
+        R result;
+        try {
+            result = query.run(text, cancelled);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return;
+        }
+        long finishedAt = System.nanoTime();
+        if (result == null || cancelled.getAsBoolean()) return;
+
+        SwingUtilities.invokeLater(() -> {
+            // Newer input may have arrived while this result was queued for the EDT
+            if (cancelled.getAsBoolean()) return;
+            onResult.accept(result);
+            Latency latency = new Latency(text,
+                    TimeUnit.NANOSECONDS.toMillis(startedAt - submittedAt),
+                    TimeUnit.NANOSECONDS.toMillis(finishedAt - startedAt),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedAt));
+            lastLatency = latency;
+            if (LOG_LATENCY) System.err.println("[" + name + " search] " + latency);
+            if (latencyListener != null) latencyListener.accept(latency);
+        });
+    }
+
+    /** @return timings of the most recently applied query, or null if none has completed yet. */
+    public Latency getLastLatency() {
+        return lastLatency;
+    }
+
+    /** Called on the EDT with the timings of every applied query. */
+    public void setLatencyListener(Consumer<Latency> listener) {
+        this.latencyListener = listener;
+    }
+
+    /** Discard pending and running queries and ignore later submissions. The shared thread keeps running. */
+    public synchronized void shutdown() {
+        shutdown = true;
+        generation.incrementAndGet();
+        if (pending != null) pending.cancel(false);
+    }
+}
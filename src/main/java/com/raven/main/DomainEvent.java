@@ -0,0 +1,101 @@
+package com.raven.main;
+
+import java.util.Set;
+
+/**
+ * Something that changed the user's books, published on the
+ * {@link DomainEventBus} so screens can update only what it touched.
+ * Every event carries the ids of the Chart of Accounts rows it affects.
+ */
+public abstract class DomainEvent {
+
+    public final Set<Integer> accountIds;
+
+    protected DomainEvent(Set<Integer> accountIds) {
+        this.accountIds = Set.copyOf(accountIds);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + accountIds;
+    }
+
+    /** A new journal entry was saved; accountIds are the accounts its lines post to. */
+    public static final class JournalEntrySaved extends DomainEvent {
+        public final int headerId;
+
+        public JournalEntrySaved(int headerId, Set<Integer> accountIds) {
+            super(accountIds);
+            this.headerId = headerId;
+        }
+    }
+
+    /** A journal entry was edited; accountIds cover both the old and the new lines. */
+    public static final class JournalEntryUpdated extends DomainEvent {
+        public final int headerId;
+
+        public JournalEntryUpdated(int headerId, Set<Integer> accountIds) {
+            super(accountIds);
+            this.headerId = headerId;
+        }
+    }
+
+    /** A journal entry was deleted; accountIds are the accounts its lines posted to. */
+    public static final class JournalEntryDeleted extends DomainEvent {
+        public final int headerId;
+
+        public JournalEntryDeleted(int headerId, Set<Integer> accountIds) {
+            super(accountIds);
+            this.headerId = headerId;
+        }
+    }
+
+    /** A Chart of Accounts row got a new name or type. */
+    public static final class AccountRenamed extends DomainEvent {
+        public final int accountId;
+        /** Stored (UPPERCASE) name. */
+        public final String newName;
+        public final String newType;
+
+        public AccountRenamed(int accountId, String newName, String newType) {
+            super(Set.of(accountId));
+            this.accountId = accountId;
+            this.newName = newName;
+            this.newType = newType;
+        }
+    }
+
+    /** A Chart of Accounts row was deleted. */
+    public static final class AccountDeleted extends DomainEvent {
+        public final int accountId;
+
+        public AccountDeleted(int accountId) {
+            super(Set.of(accountId));
+            this.accountId = accountId;
+        }
+    }
+
+    /** Ledger mini cards were generated for these accounts. */
+    public static final class LedgerCardAdded extends DomainEvent {
+        public LedgerCardAdded(Set<Integer> accountIds) {
+            super(accountIds);
+        }
+    }
+
+    /** Ledger mini cards already shown for these accounts were reloaded with new balances. */
+    public static final class LedgerCardUpdated extends DomainEvent {
+        public LedgerCardUpdated(Set<Integer> accountIds) {
+            super(accountIds);
+        }
+    }
+
+    /** The ledger mini card of this account was removed. */
+    public static final class LedgerCardRemoved extends DomainEvent {
+        public final int accountId;
+
+        public LedgerCardRemoved(int accountId) {
+            super(Set.of(accountId));
+            this.accountId = accountId;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.raven.main;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers {@link DomainEvent}s from the screen that caused a change to the
+ * screens that show the affected accounts. One bus is owned by each
+ * {@link AppWindow}. Events may be published from any thread; listeners are
+ * always called on the Event Dispatch Thread.
+ *
+ * Listeners receive every event published during one pass of the EDT in a
+ * single {@link Batch}, so a burst of changes (e.g. generating
+ * several ledger cards) causes one update instead of one per event.
+ */
+public final class DomainEventBus {
+
+    /** The events published since the last delivery, with the union of their account ids. */
+    public static final class Batch {
+        public final List<DomainEvent> events;
+        public final Set<Integer> accountIds;
+
+        Batch(List<DomainEvent> events) {
+            this.events = Collections.unmodifiableList(events);
+            Set<Integer> ids = new HashSet<>();
+            for (DomainEvent e : events) ids.addAll(e.accountIds);
+            this.accountIds = Collections.unmodifiableSet(ids);
+        }
+
+        /** @return true if the batch holds an event of any of the given types. */
+        @SafeVarargs
+        public final boolean has(Class<? extends DomainEvent>... types) {
+            for (DomainEvent e : events) {
+                for (Class<? extends DomainEvent> t : types) {
+                    if (t.isInstance(e)) return true;
+                }
+            }
+            return false;
+        }
+
+        /** @return the events of the given type, in publish order. */
+        public <E extends DomainEvent> List<E> of(Class<E> type) {
+            List<E> out = new ArrayList<>();
+            for (DomainEvent e : events) {
+                if (type.isInstance(e)) out.add(type.cast(e));
+            }
+            return out;
+        }
+    }
+
+    private final List<Consumer<Batch>> batchListeners = new CopyOnWriteArrayList<>();
+    /** Events waiting for the batched delivery. Only touched on the EDT. */
+    private List<DomainEvent> pending = new ArrayList<>();
+
+    /** Call {@code listener} once per EDT pass with all events published during it. */
+    public void subscribeBatched(Consumer<Batch> listener) {
+        batchListeners.add(listener);
+    }
+
+    public void publish(DomainEvent event) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> publish(event));
+            return;
+        }
+        if (batchListeners.isEmpty()) return;
+        if (pending.isEmpty()) SwingUtilities.invokeLater(this::flush);
+        pending.add(event);
+    }
+
+    private void flush() {
+        Batch batch = new Batch(pending);
+        pending = new ArrayList<>();
+        for (Consumer<Batch> listener : batchListeners) {
+            try {
+                listener.accept(batch);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -4,12 +4,16 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -19,11 +23,18 @@ import java.util.Set;
 public class JournalEntryRepository {
 
     public static class JournalLine {
+        /** Chart_of_Accounts id, or null if the line was never linked to an account. */
+        public final Integer accountId;
         public final String accountName;
-        public final double debit;
-        public final double credit;
+        public final Money debit;
+        public final Money credit;
 
-        public JournalLine(String accountName, double debit, double credit) {
+        public JournalLine(String accountName, Money debit, Money credit) {
+            this(null, accountName, debit, credit);
+        }
+
+        public JournalLine(Integer accountId, String accountName, Money debit, Money credit) {
+            this.accountId = accountId;
             this.accountName = accountName;
             this.debit = debit;
             this.credit = credit;
@@ -44,6 +55,31 @@ public class JournalEntryRepository {
         }
     }
 
+    /**
+     * Lines reference their account by id. A line's id is used only if the
+     * account belongs to the user; otherwise (or when the line carries no
+     * id) it is resolved from the account name within the user's Chart of
+     * Accounts, so a stale or foreign id never posts to another user's account.
+     * account_name is still stored as the name at posting time, but readers
+     * take the current name from Chart_of_Accounts so renames touch one row.
+     */
+    private static final String INSERT_LINE_SQL = """
+            INSERT INTO journal_entry_lines (header_id, account_id, account_name, debit, credit)
+            VALUES (?, COALESCE((SELECT id FROM Chart_of_Accounts WHERE id = ? AND user_id = ?),
+                                (SELECT id FROM Chart_of_Accounts
+                                  WHERE user_id = ? AND UPPER(TRIM(account_name)) = UPPER(TRIM(?))
+                                  ORDER BY id LIMIT 1)), ?, ?, ?)
+            """;
+
+    /** Lines of one header with the account's current name. */
+    private static final String SELECT_LINES_SQL = """
+            SELECT l.account_id, COALESCE(c.account_name, l.account_name) AS account_name, l.debit, l.credit
+              FROM journal_entry_lines l
+              LEFT JOIN Chart_of_Accounts c ON c.id = l.account_id
+             WHERE l.header_id = ?
+             ORDER BY l.id ASC
+            """;
+
     /**
      * Save a journal entry header and its lines for the current user.
      *
@@ -91,20 +127,8 @@ public class JournalEntryRepository {
                     }
                 }
 
-                String insertLine = """
-                        INSERT INTO journal_entry_lines (header_id, account_name, debit, credit)
-                        VALUES (?, ?, ?, ?)
-                        """;
-                try (PreparedStatement ps = conn.prepareStatement(insertLine)) {
-                    for (JournalLine line : lines) {
-                        ps.setInt(1, headerId);
-                        ps.setString(2, line.accountName);
-                        ps.setDouble(3, line.debit);
-                        ps.setDouble(4, line.credit);
-                        ps.addBatch();
-                    }
-                    ps.executeBatch();
-                }
+                insertLines(conn, userId, headerId, lines);
+                AccountBalanceRepository.addHeader(conn, headerId);
 
                 conn.commit();
             } catch (SQLException ex) {
@@ -119,52 +143,82 @@ public class JournalEntryRepository {
     }
 
     /**
-     * Load recent journal entries for the current user, including their lines.
+     * Load all journal entries for the current user (newest first), including their lines.
      */
     public List<JournalEntry> loadJournalEntriesForCurrentUser() throws SQLException {
+        return loadEntries(null, -1);
+    }
+
+    /**
+     * Load one page of journal entries for the current user, newest first,
+     * including their lines. Pages are keyed on header id: pass {@code null}
+     * for the first page, then the id of the last entry of the previous page.
+     *
+     * @param beforeId only entries with an id below this are returned; null for the newest page
+     * @param pageSize maximum number of entries to return
+     */
+    public List<JournalEntry> loadJournalEntriesPage(Integer beforeId, int pageSize) throws SQLException {
+        if (pageSize <= 0) throw new IllegalArgumentException("pageSize must be positive.");
+        return loadEntries(beforeId, pageSize);
+    }
+
+    /**
+     * Two queries regardless of the number of entries: one for the headers
+     * of the page, one for all of their lines ordered by header, which are
+     * then grouped in memory. A page is a contiguous range of this user's
+     * header ids, so its lines can be selected by id range.
+     */
+    private List<JournalEntry> loadEntries(Integer beforeId, int limit) throws SQLException {
         Integer userId = Session.getUserId();
         if (userId == null) {
             throw new IllegalStateException("No logged-in user in Session.");
         }
 
         List<JournalEntry> result = new ArrayList<>();
+        Map<Integer, List<JournalLine>> linesByHeader = new HashMap<>();
 
         String headerSql = """
                 SELECT id, entry_name, created_at
                   FROM journal_entry_headers
-                 WHERE user_id = ?
+                 WHERE user_id = ? AND id < ?
                  ORDER BY id DESC
+                 LIMIT ?
+                """;
+        String lineSql = """
+                SELECT l.header_id, l.account_id, COALESCE(c.account_name, l.account_name) AS account_name, l.debit, l.credit
+                  FROM journal_entry_headers h
+                  JOIN journal_entry_lines l ON l.header_id = h.id
+                  LEFT JOIN Chart_of_Accounts c ON c.id = l.account_id
+                 WHERE h.user_id = ? AND h.id BETWEEN ? AND ?
+                 ORDER BY l.header_id, l.id
                 """;
 
-        try (Connection conn = DBConnection.connect();
-             PreparedStatement psHeader = conn.prepareStatement(headerSql)) {
-            psHeader.setInt(1, userId);
-            try (ResultSet rsHeader = psHeader.executeQuery()) {
-                while (rsHeader.next()) {
-                    int headerId = rsHeader.getInt("id");
-                    String entryName = rsHeader.getString("entry_name");
-                    String createdAt = rsHeader.getString("created_at");
-                    List<JournalLine> lines = new ArrayList<>();
-
-                    String lineSql = """
-                            SELECT account_name, debit, credit
-                              FROM journal_entry_lines
-                             WHERE header_id = ?
-                             ORDER BY id ASC
-                            """;
-                    try (PreparedStatement psLine = conn.prepareStatement(lineSql)) {
-                        psLine.setInt(1, headerId);
-                        try (ResultSet rsLine = psLine.executeQuery()) {
-                            while (rsLine.next()) {
-                                String accountName = rsLine.getString("account_name");
-                                double debit = rsLine.getDouble("debit");
-                                double credit = rsLine.getDouble("credit");
-                                lines.add(new JournalLine(accountName, debit, credit));
-                            }
-                        }
+        try (Connection conn = DBConnection.connectForRead()) {
+            try (PreparedStatement psHeader = conn.prepareStatement(headerSql)) {
+                psHeader.setInt(1, userId);
+                psHeader.setLong(2, beforeId != null ? beforeId : Long.MAX_VALUE);
+                psHeader.setInt(3, limit);
+                try (ResultSet rsHeader = psHeader.executeQuery()) {
+                    while (rsHeader.next()) {
+                        int headerId = rsHeader.getInt("id");
+                        List<JournalLine> lines = new ArrayList<>();
+                        linesByHeader.put(headerId, lines);
+                        result.add(new JournalEntry(headerId, rsHeader.getString("entry_name"),
+                                rsHeader.getString("created_at"), lines));
                     }
+                }
+            }
+            if (result.isEmpty()) return result;
 
-                    result.add(new JournalEntry(headerId, entryName, createdAt, lines));
+            try (PreparedStatement psLine = conn.prepareStatement(lineSql)) {
+                psLine.setInt(1, userId);
+                psLine.setInt(2, result.get(result.size() - 1).id);
+                psLine.setInt(3, result.get(0).id);
+                try (ResultSet rsLine = psLine.executeQuery()) {
+                    while (rsLine.next()) {
+                        List<JournalLine> lines = linesByHeader.get(rsLine.getInt("header_id"));
+                        if (lines != null) lines.add(readLine(rsLine));
+                    }
                 }
             }
         }
@@ -172,6 +226,115 @@ public class JournalEntryRepository {
         return result;
     }
 
+    /**
+     * Search the current user's journal entries through the journal_search
+     * full-text index. Every term must prefix-match the entry name, an
+     * account name or an amount of the entry; amount filters require a line
+     * whose amount is in range.
+     *
+     * @return matching header ids, best match first (newest first when the
+     *         query has only amount filters); empty for an empty query
+     */
+    public List<Integer> searchHeaderIds(JournalSearchQuery query, int limit) throws SQLException {
+        Integer userId = Session.getUserId();
+        if (userId == null) {
+            throw new IllegalStateException("No logged-in user in Session.");
+        }
+        List<Integer> ids = new ArrayList<>();
+        if (query == null || query.isEmpty()) return ids;
+
+        String match = query.toMatchExpression();
+        String amountFilter = """
+                 AND EXISTS (SELECT 1 FROM journal_entry_lines l
+                              WHERE l.header_id = %s
+                                AND MAX(l.debit, l.credit) >= COALESCE(?, MAX(l.debit, l.credit))
+                                AND MAX(l.debit, l.credit) <= COALESCE(?, MAX(l.debit, l.credit)))
+                """;
+        String sql;
+        if (match != null) {
+            sql = "SELECT rowid AS id FROM journal_search WHERE journal_search MATCH ? AND user_id = ?"
+                    + (query.hasAmountFilter() ? String.format(amountFilter, "journal_search.rowid") : "")
+                    + " ORDER BY bm25(journal_search), rowid DESC LIMIT ?";
+        } else {
+            sql = "SELECT h.id FROM journal_entry_headers h WHERE h.user_id = ?"
+                    + String.format(amountFilter, "h.id")
+                    + " ORDER BY h.id DESC LIMIT ?";
+        }
+
+        try (Connection conn = DBConnection.connectForRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (match != null) ps.setString(i++, match);
+            ps.setInt(i++, userId);
+            if (query.hasAmountFilter()) {
+                if (query.minAmount != null) ps.setLong(i++, query.minAmount.minor()); else ps.setNull(i++, Types.INTEGER);
+                if (query.maxAmount != null) ps.setLong(i++, query.maxAmount.minor()); else ps.setNull(i++, Types.INTEGER);
+            }
+            ps.setInt(i, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getInt("id"));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Load the given journal entries of the current user, including their
+     * lines, in the order of {@code headerIds}. Ids that do not exist or
+     * belong to another user are skipped.
+     */
+    public List<JournalEntry> loadJournalEntriesByIds(List<Integer> headerIds) throws SQLException {
+        Integer userId = Session.getUserId();
+        if (userId == null) {
+            throw new IllegalStateException("No logged-in user in Session.");
+        }
+        List<JournalEntry> result = new ArrayList<>();
+        if (headerIds == null || headerIds.isEmpty()) return result;
+
+        String placeholders = String.join(",", Collections.nCopies(headerIds.size(), "?"));
+        String headerSql = "SELECT id, entry_name, created_at FROM journal_entry_headers WHERE user_id = ? AND id IN (" + placeholders + ")";
+        String lineSql = """
+                SELECT l.header_id, l.account_id, COALESCE(c.account_name, l.account_name) AS account_name, l.debit, l.credit
+                  FROM journal_entry_lines l
+                  LEFT JOIN Chart_of_Accounts c ON c.id = l.account_id
+                 WHERE l.header_id IN (%s)
+                 ORDER BY l.header_id, l.id
+                """.formatted(placeholders);
+
+        Map<Integer, JournalEntry> byId = new HashMap<>();
+        Map<Integer, List<JournalLine>> linesByHeader = new HashMap<>();
+        try (Connection conn = DBConnection.connectForRead()) {
+            try (PreparedStatement ps = conn.prepareStatement(headerSql)) {
+                ps.setInt(1, userId);
+                for (int i = 0; i < headerIds.size(); i++) ps.setInt(i + 2, headerIds.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int headerId = rs.getInt("id");
+                        List<JournalLine> lines = new ArrayList<>();
+                        linesByHeader.put(headerId, lines);
+                        byId.put(headerId, new JournalEntry(headerId, rs.getString("entry_name"), rs.getString("created_at"), lines));
+                    }
+                }
+            }
+            if (byId.isEmpty()) return result;
+            try (PreparedStatement ps = conn.prepareStatement(lineSql)) {
+                for (int i = 0; i < headerIds.size(); i++) ps.setInt(i + 1, headerIds.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        // Lines of ids that belong to another user have no list and are ignored
+                        List<JournalLine> lines = linesByHeader.get(rs.getInt("header_id"));
+                        if (lines != null) lines.add(readLine(rs));
+                    }
+                }
+            }
+        }
+        for (Integer id : headerIds) {
+            JournalEntry e = byId.get(id);
+            if (e != null) result.add(e);
+        }
+        return result;
+    }
+
     /**
      * Load a single journal entry by header id. Returns null if not found or
      * the entry does not belong to the current user.
@@ -185,7 +348,7 @@ public class JournalEntryRepository {
                   FROM journal_entry_headers
                  WHERE id = ? AND user_id = ?
                 """;
-        try (Connection conn = DBConnection.connect();
+        try (Connection conn = DBConnection.connectForRead();
              PreparedStatement ps = conn.prepareStatement(headerSql)) {
             ps.setInt(1, headerId);
             ps.setInt(2, userId);
@@ -194,20 +357,11 @@ public class JournalEntryRepository {
                 String entryName = rs.getString("entry_name");
                 String createdAt = rs.getString("created_at");
                 List<JournalLine> lines = new ArrayList<>();
-                String lineSql = """
-                        SELECT account_name, debit, credit
-                          FROM journal_entry_lines
-                         WHERE header_id = ?
-                         ORDER BY id ASC
-                        """;
-                try (PreparedStatement psLine = conn.prepareStatement(lineSql)) {
+                try (PreparedStatement psLine = conn.prepareStatement(SELECT_LINES_SQL)) {
                     psLine.setInt(1, headerId);
                     try (ResultSet rsLine = psLine.executeQuery()) {
                         while (rsLine.next()) {
-                            lines.add(new JournalLine(
-                                    rsLine.getString("account_name"),
-                                    rsLine.getDouble("debit"),
-                                    rsLine.getDouble("credit")));
+                            lines.add(readLine(rsLine));
                         }
                     }
                 }
@@ -219,8 +373,9 @@ public class JournalEntryRepository {
     /**
      * Update journal entry header (entry_name) and lines for the given header. The header must belong to the current user.
      * @param entryName display name (will be stored in Title Case); null/blank uses existing value
+     * @return ids of the accounts whose lines changed: those of the old lines and of the new ones
      */
-    public void updateJournalEntry(int headerId, String entryName, List<JournalLine> lines) throws SQLException {
+    public Set<Integer> updateJournalEntry(int headerId, String entryName, List<JournalLine> lines) throws SQLException {
         Integer userId = Session.getUserId();
         if (userId == null) throw new IllegalStateException("No logged-in user.");
         if (lines == null || lines.isEmpty()) throw new IllegalArgumentException("At least one line required.");
@@ -248,25 +403,17 @@ public class JournalEntryRepository {
                         upd.executeUpdate();
                     }
                 }
+                Set<Integer> affected = accountIdsOf(conn, headerId);
+                AccountBalanceRepository.removeHeader(conn, headerId);
                 try (PreparedStatement del = conn.prepareStatement("DELETE FROM journal_entry_lines WHERE header_id = ?")) {
                     del.setInt(1, headerId);
                     del.executeUpdate();
                 }
-                String insertLine = """
-                        INSERT INTO journal_entry_lines (header_id, account_name, debit, credit)
-                        VALUES (?, ?, ?, ?)
-                        """;
-                try (PreparedStatement ps = conn.prepareStatement(insertLine)) {
-                    for (JournalLine line : lines) {
-                        ps.setInt(1, headerId);
-                        ps.setString(2, line.accountName);
-                        ps.setDouble(3, line.debit);
-                        ps.setDouble(4, line.credit);
-                        ps.addBatch();
-                    }
-                    ps.executeBatch();
-                }
+                insertLines(conn, userId, headerId, lines);
+                AccountBalanceRepository.addHeader(conn, headerId);
+                affected.addAll(accountIdsOf(conn, headerId));
                 conn.commit();
+                return affected;
             } catch (SQLException e) {
                 conn.rollback();
                 throw e;
@@ -278,43 +425,75 @@ public class JournalEntryRepository {
 
     /**
      * Delete a journal entry (header and all lines). Only allowed if the header belongs to the current user.
+     * @return ids of the accounts the deleted lines were posted to
      */
-    public void deleteJournalEntry(int headerId) throws SQLException {
+    public Set<Integer> deleteJournalEntry(int headerId) throws SQLException {
         Integer userId = Session.getUserId();
         if (userId == null) throw new IllegalStateException("No logged-in user.");
 
         try (Connection conn = DBConnection.connect()) {
-            try (PreparedStatement ps = conn.prepareStatement(
-                    "DELETE FROM journal_entry_headers WHERE id = ? AND user_id = ?")) {
-                ps.setInt(1, headerId);
-                ps.setInt(2, userId);
-                int n = ps.executeUpdate();
-                if (n == 0) throw new SQLException("Journal entry not found or access denied.");
+            conn.setAutoCommit(false);
+            try {
+                // Lines still exist here; take them out of the balances before the cascade removes them
+                Set<Integer> affected = accountIdsOf(conn, headerId);
+                AccountBalanceRepository.removeHeader(conn, headerId);
+                // Lines are deleted by FK CASCADE
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "DELETE FROM journal_entry_headers WHERE id = ? AND user_id = ?")) {
+                    ps.setInt(1, headerId);
+                    ps.setInt(2, userId);
+                    int n = ps.executeUpdate();
+                    if (n == 0) throw new SQLException("Journal entry not found or access denied.");
+                }
+                conn.commit();
+                return affected;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** @return ids of the accounts the lines of the given header are posted to. */
+    public Set<Integer> getAccountIds(int headerId) throws SQLException {
+        try (Connection conn = DBConnection.connectForRead()) {
+            return accountIdsOf(conn, headerId);
+        }
+    }
+
+    private static Set<Integer> accountIdsOf(Connection conn, int headerId) throws SQLException {
+        Set<Integer> out = new HashSet<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT DISTINCT account_id FROM journal_entry_lines WHERE header_id = ? AND account_id IS NOT NULL")) {
+            ps.setInt(1, headerId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(rs.getInt(1));
             }
         }
-        // Lines are deleted by FK CASCADE
+        return out;
     }
 
     /**
-     * Returns the set of account names (normalized: uppercase, trimmed) that appear in
-     * journal_entry_lines for the given user's headers. Used to determine "posted" accounts.
+     * Returns the ids of the Chart_of_Accounts rows that have at least one
+     * journal line for the given user. Used to determine "posted" accounts.
      */
-    public static Set<String> getPostedAccountNamesNormalized(Integer userId) {
-        Set<String> out = new HashSet<>();
+    public static Set<Integer> getPostedAccountIds(Integer userId) {
+        Set<Integer> out = new HashSet<>();
         if (userId == null) return out;
         String sql = """
-                SELECT DISTINCT TRIM(UPPER(l.account_name)) AS n
+                SELECT DISTINCT l.account_id
                   FROM journal_entry_lines l
                   JOIN journal_entry_headers h ON l.header_id = h.id
-                 WHERE h.user_id = ?
+                 WHERE h.user_id = ? AND l.account_id IS NOT NULL
                 """;
-        try (Connection conn = DBConnection.connect();
+        try (Connection conn = DBConnection.connectForRead();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    String n = rs.getString("n");
-                    if (n != null && !n.isEmpty()) out.add(n);
+                    out.add(rs.getInt("account_id"));
                 }
             }
         } catch (SQLException e) {
@@ -323,30 +502,30 @@ public class JournalEntryRepository {
         return out;
     }
 
-    /**
-     * After renaming an account in Chart_of_Accounts, propagate the new name to all
-     * journal_entry_lines for this user so Journal Entries, Ledger, Trial Balance, and
-     * Financial Reports stay consistent. oldNormalized and newNormalized should be
-     * uppercase trimmed (same format as stored in CoA and in lines).
-     */
-    public static void updateAccountNameInLines(Integer userId, String oldNormalized, String newNormalized) {
-        if (userId == null || oldNormalized == null || newNormalized == null) return;
-        if (oldNormalized.equals(newNormalized)) return;
-        String sql = """
-                UPDATE journal_entry_lines
-                   SET account_name = ?
-                 WHERE header_id IN (SELECT id FROM journal_entry_headers WHERE user_id = ?)
-                   AND TRIM(UPPER(account_name)) = ?
-                """;
-        try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, newNormalized);
-            ps.setInt(2, userId);
-            ps.setString(3, oldNormalized.trim().toUpperCase());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private static void insertLines(Connection conn, int userId, int headerId, List<JournalLine> lines) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_LINE_SQL)) {
+            for (JournalLine line : lines) {
+                ps.setInt(1, headerId);
+                if (line.accountId != null) ps.setInt(2, line.accountId);
+                else ps.setNull(2, Types.INTEGER);
+                ps.setInt(3, userId);
+                ps.setInt(4, userId);
+                ps.setString(5, line.accountName);
+                ps.setString(6, line.accountName);
+                ps.setLong(7, line.debit.minor());
+                ps.setLong(8, line.credit.minor());
+                ps.addBatch();
+            }
+            ps.executeBatch();
         }
     }
-}
 
+    private static JournalLine readLine(ResultSet rs) throws SQLException {
+        int accountId = rs.getInt("account_id");
+        return new JournalLine(
+                rs.wasNull() ? null : accountId,
+                rs.getString("account_name"),
+                Money.ofMinor(rs.getLong("debit")),
+                Money.ofMinor(rs.getLong("credit")));
+    }
+}
@@ -0,0 +1,90 @@
+package com.raven.main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A parsed journal search box query. Plain words are matched as prefixes
+ * against entry names, account names and amounts; every word must match.
+ * Amount filters restrict results to entries with at least one line whose
+ * amount is in range:
+ * <ul>
+ *   <li>{@code >=500} – at least 500; {@code >500} – more than 500</li>
+ *   <li>{@code <=500} – at most 500; {@code <500} – less than 500</li>
+ *   <li>{@code 100..500} – between 100 and 500</li>
+ * </ul>
+ * For example {@code "cash >1000"} finds entries mentioning an account or
+ * name starting with "cash" that have a line of more than 1,000.
+ */
+public final class JournalSearchQuery {
+
+    // Amounts have at most two decimal places, like Money
+    private static final Pattern RANGE = Pattern.compile("(\\d+(?:\\.\\d{1,2})?)\\.\\.(\\d+(?:\\.\\d{1,2})?)");
+    private static final Pattern BOUND = Pattern.compile("([<>])(=?)(\\d+(?:\\.\\d{1,2})?)");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    public final List<String> terms;
+    /** Inclusive lower bound on a line amount, or null. */
+    public final Money minAmount;
+    /** Inclusive upper bound on a line amount, or null. */
+    public final Money maxAmount;
+
+    public JournalSearchQuery(List<String> terms, Money minAmount, Money maxAmount) {
+        this.terms = List.copyOf(terms);
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+    }
+
+    public static JournalSearchQuery parse(String raw) {
+        List<String> terms = new ArrayList<>();
+        Money min = null, max = null;
+        if (raw != null) {
+            for (String token : raw.trim().split("\\s+")) {
+                if (token.isEmpty()) continue;
+                Matcher range = RANGE.matcher(token);
+                Matcher bound = BOUND.matcher(token);
+                if (range.matches()) {
+                    min = Money.parse(range.group(1));
+                    max = Money.parse(range.group(2));
+                } else if (bound.matches()) {
+                    long v = Money.parse(bound.group(3)).minor();
+                    // Bounds are stored inclusive, so a strict one moves by one minor unit
+                    boolean strict = bound.group(2).isEmpty();
+                    if (">".equals(bound.group(1))) min = Money.ofMinor(strict ? v + 1 : v);
+                    else max = Money.ofMinor(strict ? v - 1 : v);
+                } else {
+                    // Split on punctuation the same way the FTS tokenizer does
+                    Matcher word = WORD.matcher(token.toLowerCase(Locale.ROOT));
+                    while (word.find()) terms.add(word.group());
+                }
+            }
+        }
+        return new JournalSearchQuery(terms, min, max);
+    }
+
+    public boolean isEmpty() {
+        return terms.isEmpty() && minAmount == null && maxAmount == null;
+    }
+
+    public boolean hasAmountFilter() {
+        return minAmount != null || maxAmount != null;
+    }
+
+    /**
+     * @return an FTS5 MATCH expression requiring every term as a prefix, or
+     *         null if there are no terms. Terms are quoted so user input can
+     *         never be read as FTS syntax.
+     */
+    String toMatchExpression() {
+        if (terms.isEmpty()) return null;
+        StringBuilder sb = new StringBuilder();
+        for (String t : terms) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append('"').append(t.replace("\"", "\"\"")).append("\"*");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,241 @@
+package com.raven.main;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The accounts shown as ledger mini cards: display name, account kind,
+ * balance (minor units, see {@link Money}) and card of each, kept in
+ * parallel arrays indexed through a primitive {@code int} id table.
+ *
+ * Trial Balance and Financial Reports read it through {@link #forEach} and
+ * {@link #visit}, which hand out primitives and shared enum constants, so
+ * a refresh neither boxes ids and balances nor allocates a row object per
+ * account. Removing an account moves the last one into its place, so the
+ * iteration order is not stable across removals. Used on the EDT only.
+ *
+ * @param <C> the card component stored with each account
+ */
+public final class LedgerAccountRegistry<C> {
+
+    /** Account type from Chart of Accounts, reduced to what reports branch on. */
+    public enum Kind {
+        ASSET, LIABILITY, EQUITY, REVENUE, EXPENSE, OTHER;
+
+        /** @param accountType Chart_of_Accounts.account_type in any case, singular or plural */
+        public static Kind of(String accountType) {
+            String u = accountType != null ? accountType.trim().toUpperCase() : "";
+            switch (u) {
+                case "ASSET": case "ASSETS": return ASSET;
+                case "LIABILITY": case "LIABILITIES": return LIABILITY;
+                case "EQUITY": return EQUITY;
+                case "REVENUE": case "REVENUES": return REVENUE;
+                case "EXPENSE": case "EXPENSES": return EXPENSE;
+                default: return OTHER;
+            }
+        }
+
+        /** Asset and expense balances are debit - credit; all others credit - debit. */
+        public boolean isDebitNormal() {
+            return this == ASSET || this == EXPENSE;
+        }
+    }
+
+    /** Receives one account per call; must not add or remove accounts. */
+    @FunctionalInterface
+    public interface AccountVisitor {
+        void visit(int accountId, String displayName, Kind kind, long balance);
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int size;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private Kind[] kinds = new Kind[INITIAL_CAPACITY];
+    private long[] balances = new long[INITIAL_CAPACITY];
+    private Object[] cards = new Object[INITIAL_CAPACITY];
+
+    // Open-addressing id table: each slot holds (array index + 1), 0 = empty. Kept at most half full.
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int accountId) {
+        return indexOf(accountId) >= 0;
+    }
+
+    /**
+     * Add the account, or replace its name, kind and balance. Its card is kept.
+     *
+     * @return true if the account is new or its kind or balance changed
+     */
+    public boolean put(int accountId, String displayName, Kind kind, long balance) {
+        int i = indexOf(accountId);
+        boolean changed = i < 0 || kinds[i] != kind || balances[i] != balance;
+        if (i < 0) {
+            if (size == ids.length) grow();
+            i = size++;
+            ids[i] = accountId;
+            insertSlot(accountId, i);
+        }
+        names[i] = displayName;
+        kinds[i] = kind;
+        balances[i] = balance;
+        return changed;
+    }
+
+    /** @return false if the account is not registered */
+    public boolean rename(int accountId, String displayName) {
+        int i = indexOf(accountId);
+        if (i < 0) return false;
+        names[i] = displayName;
+        return true;
+    }
+
+    public void setCard(int accountId, C card) {
+        int i = indexOf(accountId);
+        if (i < 0) throw new IllegalArgumentException("Account " + accountId + " is not registered");
+        cards[i] = card;
+    }
+
+    /** @return the account's card, or null if it is not registered or has none */
+    @SuppressWarnings("unchecked")
+    public C card(int accountId) {
+        int i = indexOf(accountId);
+        return i < 0 ? null : (C) cards[i];
+    }
+
+    /** @return the account's display name, or null if it is not registered */
+    public String displayName(int accountId) {
+        int i = indexOf(accountId);
+        return i < 0 ? null : names[i];
+    }
+
+    /** @return the account's kind, or null if it is not registered */
+    public Kind kind(int accountId) {
+        int i = indexOf(accountId);
+        return i < 0 ? null : kinds[i];
+    }
+
+    /**
+     * Drop the account.
+     *
+     * @return its card, or null if it was not registered
+     */
+    @SuppressWarnings("unchecked")
+    public C remove(int accountId) {
+        int i = indexOf(accountId);
+        if (i < 0) return null;
+        C card = (C) cards[i];
+        deleteSlot(accountId);
+
+        // Move the last account into the freed position
+        int last = --size;
+        if (i != last) {
+            ids[i] = ids[last];
+            names[i] = names[last];
+            kinds[i] = kinds[last];
+            balances[i] = balances[last];
+            cards[i] = cards[last];
+            slots[slotOf(ids[i])] = i + 1;
+        }
+        names[last] = null;
+        kinds[last] = null;
+        cards[last] = null;
+        return card;
+    }
+
+    public void forEach(AccountVisitor visitor) {
+        for (int i = 0; i < size; i++) {
+            visitor.visit(ids[i], names[i], kinds[i], balances[i]);
+        }
+    }
+
+    /** @return false (and does not call the visitor) if the account is not registered */
+    public boolean visit(int accountId, AccountVisitor visitor) {
+        int i = indexOf(accountId);
+        if (i < 0) return false;
+        visitor.visit(ids[i], names[i], kinds[i], balances[i]);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEachCard(Consumer<? super C> action) {
+        for (int i = 0; i < size; i++) {
+            if (cards[i] != null) action.accept((C) cards[i]);
+        }
+    }
+
+    /** @return a copy of id to display name, in iteration order */
+    public Map<Integer, String> displayNames() {
+        Map<Integer, String> out = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) out.put(ids[i], names[i]);
+        return out;
+    }
+
+    // ----- id table -----------------------------------------------------------
+
+    private static int home(int accountId, int mask) {
+        int h = accountId * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private int indexOf(int accountId) {
+        int mask = slots.length - 1;
+        for (int s = home(accountId, mask); ; s = (s + 1) & mask) {
+            int entry = slots[s];
+            if (entry == 0) return -1;
+            if (ids[entry - 1] == accountId) return entry - 1;
+        }
+    }
+
+    /** Slot of a registered account. */
+    private int slotOf(int accountId) {
+        int mask = slots.length - 1;
+        int s = home(accountId, mask);
+        while (ids[slots[s] - 1] != accountId) s = (s + 1) & mask;
+        return s;
+    }
+
+    private void insertSlot(int accountId, int index) {
+        int mask = slots.length - 1;
+        int s = home(accountId, mask);
+        while (slots[s] != 0) s = (s + 1) & mask;
+        slots[s] = index + 1;
+    }
+
+    /** Empty the account's slot and shift later entries of the probe run back, so lookups never stop early. */
+    private void deleteSlot(int accountId) {
+        int mask = slots.length - 1;
+        int hole = slotOf(accountId);
+        for (int s = (hole + 1) & mask; slots[s] != 0; s = (s + 1) & mask) {
+            int home = home(ids[slots[s] - 1], mask);
+            // The entry may fill the hole unless its home lies cyclically in (hole, s]
+            if (((s - home) & mask) >= ((s - hole) & mask)) {
+                slots[hole] = slots[s];
+                hole = s;
+            }
+        }
+        slots[hole] = 0;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        balances = Arrays.copyOf(balances, capacity);
+        cards = Arrays.copyOf(cards, capacity);
+        slots = new int[capacity * 2];
+        for (int i = 0; i < size; i++) insertSlot(ids[i], i);
+    }
+}
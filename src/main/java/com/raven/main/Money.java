@@ -0,0 +1,103 @@
+package com.raven.main;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a whole number of minor units (centavos), so sums
+ * and comparisons are exact. Amounts are stored the same way in the
+ * database ({@code INTEGER} columns), and repositories add them up as plain
+ * {@code long}s; this class is the value passed between repositories and
+ * screens, and the one place amounts are parsed and formatted.
+ */
+public final class Money implements Comparable<Money> {
+
+    /** Minor units per major unit. */
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private final long minor;
+
+    private Money(long minor) {
+        this.minor = minor;
+    }
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    /**
+     * Parse user input such as {@code "1,250.5"}. Thousands separators are
+     * ignored.
+     *
+     * @throws NumberFormatException if the text is not a number or has more
+     *                               than two decimal places
+     */
+    public static Money parse(String text) {
+        BigDecimal value = new BigDecimal(text.trim().replace(",", ""));
+        try {
+            return ofMinor(value.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount must have at most " + SCALE + " decimal places: " + text);
+        }
+    }
+
+    public long minor() {
+        return minor;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minor, other.minor));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minor));
+    }
+
+    public Money abs() {
+        return minor < 0 ? negate() : this;
+    }
+
+    public int signum() {
+        return Long.signum(minor);
+    }
+
+    public boolean isZero() {
+        return minor == 0;
+    }
+
+    /** @return e.g. {@code "1,250.50"} */
+    public String format() {
+        return format(minor);
+    }
+
+    /** Format an amount given in minor units with thousands separators, e.g. {@code "-1,250.50"}. */
+    public static String format(long minor) {
+        return String.format("%,.2f", BigDecimal.valueOf(minor, SCALE));
+    }
+
+    /** @return the plain amount, e.g. {@code "1250.50"}, which {@link #parse} reads back */
+    @Override
+    public String toString() {
+        return BigDecimal.valueOf(minor, SCALE).toPlainString();
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money && ((Money) o).minor == minor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor);
+    }
+}
@@ -1,72 +1,102 @@
 package com.raven.main;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * In-memory user-specific notifications for Trial Balance and Financial Reports.
- * Deduplication: same key + same message within a short window is not duplicated.
+ * Each user has a fixed-size ring; once it is full the oldest notifications are
+ * overwritten (the persisted copies in {@link NotificationRepository} are not
+ * affected). Adding and reading are lock-free and safe from any thread.
+ * Deduplication: same key + same message within the same {@link #DEDUP_MS}
+ * time bucket is not duplicated.
  */
 public final class NotificationHolder {
 
-    /** No limit: display all notifications until manually cleared. */
-    private static final int MAX_PER_USER = 100_000;
+    /** Notifications kept per user; a power of two. */
+    private static final int CAPACITY = 1 << 12;
     private static final long DEDUP_MS = 2_000;
+    /** Dedup stamps per user, one per key hash; a power of two. */
+    private static final int DEDUP_SLOTS = 64;
 
-    /** userId -> list of (message, createdMs) */
-    private static final Map<Integer, LinkedList<NotificationEntry>> BY_USER = new ConcurrentHashMap<>();
-    /** userId -> (key -> last message + time) for deduplication */
-    private static final Map<Integer, Map<String, DedupEntry>> LAST_BY_KEY = new ConcurrentHashMap<>();
+    /** userId -> ring of recent notifications */
+    private static final Map<Integer, Ring> BY_USER = new ConcurrentHashMap<>();
 
     private NotificationHolder() {}
 
     public static void add(Integer userId, String key, String message) {
         if (userId == null || message == null || message.isBlank()) return;
-        Map<String, DedupEntry> keyMap = LAST_BY_KEY.computeIfAbsent(userId, k -> new ConcurrentHashMap<>());
-        long now = System.currentTimeMillis();
-        DedupEntry last = keyMap.get(key);
-        if (last != null && last.message.equals(message) && (now - last.timeMs) < DEDUP_MS) {
-            return;
-        }
-        keyMap.put(key, new DedupEntry(message, now));
-        LinkedList<NotificationEntry> list = BY_USER.computeIfAbsent(userId, k -> new LinkedList<>());
-        list.addFirst(new NotificationEntry(message, now));
-        while (list.size() > MAX_PER_USER) list.removeLast();
+        Ring ring = BY_USER.computeIfAbsent(userId, k -> new Ring());
+        if (ring.isDuplicate(key, message, System.currentTimeMillis())) return;
+        ring.add(message);
     }
 
+    /** @return up to {@code limit} messages, newest first */
     public static List<String> getRecent(Integer userId, int limit) {
         if (userId == null) return List.of();
-        LinkedList<NotificationEntry> list = BY_USER.get(userId);
-        if (list == null) return List.of();
-        List<String> out = new ArrayList<>(Math.min(limit, list.size()));
-        int n = 0;
-        for (NotificationEntry e : list) {
-            if (n >= limit) break;
-            out.add(e.message);
-            n++;
-        }
-        return out;
+        Ring ring = BY_USER.get(userId);
+        if (ring == null) return List.of();
+        return ring.snapshot(limit);
     }
 
     /** Clear all notifications for the given user (manual clear). */
     public static void clearAll(Integer userId) {
         if (userId == null) return;
         BY_USER.remove(userId);
-        LAST_BY_KEY.remove(userId);
     }
 
-    private static class NotificationEntry {
-        final String message;
-        final long timeMs;
-        NotificationEntry(String message, long timeMs) { this.message = message; this.timeMs = timeMs; }
-    }
+    /**
+     * Multi-producer ring of messages. A producer claims a sequence number,
+     * then writes the message into slot {@code seq % CAPACITY} between two
+     * writes of the slot's stamp: -1 while writing, {@code seq} once done.
+     * Readers keep a message only if the stamp reads {@code seq} both before
+     * and after reading it, so a slot being overwritten is skipped rather
+     * than returned torn.
+     */
+    private static final class Ring {
+        private final AtomicLong next = new AtomicLong();
+        private final AtomicReferenceArray<String> messages = new AtomicReferenceArray<>(CAPACITY);
+        private final AtomicLongArray stamps = new AtomicLongArray(CAPACITY);
+        /** Per key hash: hash of key + message in the high half, time bucket in the low half. */
+        private final AtomicLongArray dedup = new AtomicLongArray(DEDUP_SLOTS);
+
+        Ring() {
+            for (int i = 0; i < CAPACITY; i++) stamps.set(i, -1);
+        }
 
-    private static class DedupEntry {
-        final String message;
-        final long timeMs;
-        DedupEntry(String message, long timeMs) { this.message = message; this.timeMs = timeMs; }
+        /** Record the message for the key and report whether it was already seen in this time bucket. */
+        boolean isDuplicate(String key, String message, long nowMs) {
+            int keyHash = key != null ? key.hashCode() : 0;
+            long fingerprint = (31L * keyHash + message.hashCode()) << 32;
+            long stamp = fingerprint | ((nowMs / DEDUP_MS) & 0xFFFF_FFFFL);
+            return dedup.getAndSet(keyHash & (DEDUP_SLOTS - 1), stamp) == stamp;
+        }
+
+        void add(String message) {
+            long seq = next.getAndIncrement();
+            int slot = (int) (seq & (CAPACITY - 1));
+            stamps.set(slot, -1);
+            messages.set(slot, message);
+            stamps.set(slot, seq);
+        }
+
+        /** Newest first; costs O(limit) unless many slots are being written at the same time. */
+        List<String> snapshot(int limit) {
+            long end = next.get();
+            long start = Math.max(0, end - CAPACITY);
+            List<String> out = new ArrayList<>((int) Math.min(Math.max(limit, 0), end - start));
+            for (long seq = end - 1; seq >= start && out.size() < limit; seq--) {
+                int slot = (int) (seq & (CAPACITY - 1));
+                if (stamps.get(slot) != seq) continue;
+                String message = messages.get(slot);
+                if (stamps.get(slot) == seq) out.add(message);
+            }
+            return out;
+        }
     }
 }
@@ -15,10 +15,12 @@ public final class NotificationRepository {
     private NotificationRepository() {}
 
     public static final class NotificationEntry {
+        public final long id;
         public final String message;
         public final String createdAt;
 
-        public NotificationEntry(String message, String createdAt) {
+        public NotificationEntry(long id, String message, String createdAt) {
+            this.id = id;
             this.message = message != null ? message : "";
             this.createdAt = createdAt != null ? createdAt : "";
         }
@@ -27,27 +29,34 @@ public final class NotificationRepository {
     public static void insert(Integer userId, String message) {
         if (userId == null || message == null || message.isBlank()) return;
         String sql = "INSERT INTO notifications (user_id, message) VALUES (?, ?)";
-        try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            ps.setString(2, message);
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        // Written with the next batch; see WriteBehindQueue
+        WriteBehindQueue.insert(sql, userId, message);
     }
 
     /** Most recent first. */
     public static List<NotificationEntry> getAll(Integer userId) {
+        if (userId == null) return new ArrayList<>();
+        return getPage(userId, Long.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * One page of the user's notifications, most recent first, keyed on id:
+     * pass {@code Long.MAX_VALUE} for the first page and the id of the last
+     * notification shown for the next one.
+     */
+    public static List<NotificationEntry> getPage(int userId, long beforeId, int limit) {
         List<NotificationEntry> result = new ArrayList<>();
-        if (userId == null) return result;
-        String sql = "SELECT message, created_at FROM notifications WHERE user_id = ? ORDER BY id DESC";
-        try (Connection conn = DBConnection.connect();
+        // Include notifications still waiting in the write-behind queue
+        if (beforeId == Long.MAX_VALUE) WriteBehindQueue.flush();
+        String sql = "SELECT id, message, created_at FROM notifications WHERE user_id = ? AND id < ? ORDER BY id DESC LIMIT ?";
+        try (Connection conn = DBConnection.connectForRead();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, userId);
+            ps.setLong(2, beforeId);
+            ps.setInt(3, limit);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    result.add(new NotificationEntry(rs.getString("message"), rs.getString("created_at")));
+                    result.add(new NotificationEntry(rs.getLong("id"), rs.getString("message"), rs.getString("created_at")));
                 }
             }
         } catch (SQLException e) {
@@ -58,6 +67,8 @@ public final class NotificationRepository {
 
     public static void clearAll(Integer userId) {
         if (userId == null) return;
+        // Write queued notifications first so they are cleared too
+        WriteBehindQueue.flush();
         String sql = "DELETE FROM notifications WHERE user_id = ?";
         try (Connection conn = DBConnection.connect();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -0,0 +1,162 @@
+package com.raven.main;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Month-end period closes: per user, account and month-end day, the
+ * cumulative debit/credit totals of every line up to and including that
+ * day. As-of reports ({@link AccountBalanceRepository#getTotalsAsOf}) start
+ * from the nearest close and only scan the lines after it.
+ *
+ * A close is only valid while nothing on or before its day changes.
+ * {@link AccountBalanceRepository} calls {@link #invalidateForHeader} for
+ * every header it adds or removes, which drops the closes on or after that
+ * header's day; they are written again by the next {@link #closeMonthsThrough}.
+ */
+public final class PeriodCloseRepository {
+
+    private PeriodCloseRepository() {}
+
+    /**
+     * Close every month of the user that ended on or before {@code through}
+     * and is not closed yet, starting at the month of their first entry.
+     * Runs in one write transaction, so a concurrent back-dated edit either
+     * comes before the close (and is included) or after it (and invalidates it).
+     *
+     * @return number of months closed
+     */
+    public static int closeMonthsThrough(int userId, LocalDate through) throws SQLException {
+        try (Connection conn = DBConnection.connect()) {
+            conn.setAutoCommit(false);
+            try {
+                int n = closeMonthsThrough(conn, userId, through);
+                conn.commit();
+                return n;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** Close every complete month before the current one. */
+    public static int closeCompletedMonths(int userId) throws SQLException {
+        return closeMonthsThrough(userId, LocalDate.now().withDayOfMonth(1).minusDays(1));
+    }
+
+    private static int closeMonthsThrough(Connection conn, int userId, LocalDate through) throws SQLException {
+        Long firstDay = null;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT MIN(entry_day) FROM journal_entry_headers WHERE user_id = ?")) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    long day = rs.getLong(1);
+                    if (!rs.wasNull()) firstDay = day;
+                }
+            }
+        }
+        if (firstDay == null) return 0;
+
+        LocalDate monthEnd = LocalDate.ofEpochDay(firstDay).withDayOfMonth(1).plusMonths(1).minusDays(1);
+        Long lastClose = latestCloseOnOrBefore(conn, userId, through.toEpochDay());
+        if (lastClose != null) {
+            LocalDate afterLast = LocalDate.ofEpochDay(lastClose).plusDays(1);
+            LocalDate next = afterLast.withDayOfMonth(afterLast.lengthOfMonth());
+            if (next.isAfter(monthEnd)) monthEnd = next;
+        }
+        List<LocalDate> monthEnds = new ArrayList<>();
+        for (; !monthEnd.isAfter(through); monthEnd = monthEnd.plusDays(1).plusMonths(1).minusDays(1)) {
+            monthEnds.add(monthEnd);
+        }
+        if (monthEnds.isEmpty()) return 0;
+
+        AccountBalanceRepository.AsOfTotals totals = AccountBalanceRepository.readTotalsAsOf(conn, userId, monthEnds);
+        try (PreparedStatement close = conn.prepareStatement(
+                     "INSERT OR REPLACE INTO period_closes (user_id, period_end) VALUES (?, ?)");
+             PreparedStatement balance = conn.prepareStatement("""
+                     INSERT INTO period_close_balances (user_id, period_end, account_id, debit_total, credit_total, line_count)
+                     VALUES (?, ?, ?, ?, ?, ?)
+                     """)) {
+            for (LocalDate end : monthEnds) {
+                close.setInt(1, userId);
+                close.setLong(2, end.toEpochDay());
+                close.addBatch();
+                for (Integer accountId : totals.accountIds()) {
+                    AccountBalanceRepository.AccountTotals t = totals.get(accountId, end);
+                    if (t.lineCount == 0) continue;
+                    balance.setInt(1, userId);
+                    balance.setLong(2, end.toEpochDay());
+                    balance.setInt(3, accountId);
+                    balance.setLong(4, t.debitTotal);
+                    balance.setLong(5, t.creditTotal);
+                    balance.setInt(6, t.lineCount);
+                    balance.addBatch();
+                }
+            }
+            close.executeBatch();
+            balance.executeBatch();
+        }
+        return monthEnds.size();
+    }
+
+    /**
+     * Drop the user's closes on or after the day of the given header. Call
+     * inside the transaction that changes the header's lines.
+     */
+    static void invalidateForHeader(Connection conn, int headerId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("""
+                DELETE FROM period_closes
+                 WHERE user_id = (SELECT user_id FROM journal_entry_headers WHERE id = ?)
+                   AND period_end >= (SELECT entry_day FROM journal_entry_headers WHERE id = ?)
+                """)) {
+            ps.setInt(1, headerId);
+            ps.setInt(2, headerId);
+            ps.executeUpdate();
+        }
+    }
+
+    /** @return the latest close day of the user on or before {@code epochDay}, or null if there is none. */
+    static Long latestCloseOnOrBefore(Connection conn, int userId, long epochDay) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT MAX(period_end) FROM period_closes WHERE user_id = ? AND period_end <= ?")) {
+            ps.setInt(1, userId);
+            ps.setLong(2, epochDay);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    long day = rs.getLong(1);
+                    if (!rs.wasNull()) return day;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** @return the closing totals of every account with lines up to the given close day. */
+    static List<AccountBalanceRepository.AccountTotals> readClose(Connection conn, int userId, long periodEnd) throws SQLException {
+        List<AccountBalanceRepository.AccountTotals> out = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("""
+                SELECT account_id, debit_total, credit_total, line_count
+                  FROM period_close_balances
+                 WHERE user_id = ? AND period_end = ?
+                """)) {
+            ps.setInt(1, userId);
+            ps.setLong(2, periodEnd);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(new AccountBalanceRepository.AccountTotals(rs.getInt("account_id"),
+                            rs.getLong("debit_total"), rs.getLong("credit_total"), rs.getInt("line_count")));
+                }
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,207 @@
+package com.raven.main;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@code activity_log} and {@code notifications} bounded. A daemon
+ * thread periodically deletes rows past their retention limits, oldest
+ * first, in small batches: each batch is its own short write transaction,
+ * so saves from the UI are never held up for long. Activity rows are first
+ * added to the daily per-type counts in {@code activity_daily_counts}, so
+ * the history is kept in summary. Afterwards the freed pages are given back
+ * to the file system with an incremental VACUUM, which only runs once
+ * {@link DatabaseInitializer} has switched the file to incremental
+ * {@code auto_vacuum}; the compactor itself never runs a full VACUUM.
+ *
+ * Limits are system properties; 0 turns a limit off:
+ * <ul>
+ *   <li>{@code accounting.retention.activityDays} – delete activity older than this (default 365)</li>
+ *   <li>{@code accounting.retention.activityPerUser} – newest activity rows kept per user (default 5000)</li>
+ *   <li>{@code accounting.retention.notificationDays} – delete notifications older than this (default 90)</li>
+ *   <li>{@code accounting.retention.notificationsPerUser} – newest notifications kept per user (default 500)</li>
+ *   <li>{@code accounting.retention.rollup} – archive deleted activity as daily counts (default true)</li>
+ *   <li>{@code accounting.retention.batchSize} – rows deleted per transaction (default 500)</li>
+ *   <li>{@code accounting.retention.intervalMinutes} – time between runs (default 60)</li>
+ * </ul>
+ */
+public final class RetentionCompactor {
+
+    private static final int ACTIVITY_DAYS = Integer.getInteger("accounting.retention.activityDays", 365);
+    private static final int ACTIVITY_PER_USER = Integer.getInteger("accounting.retention.activityPerUser", 5_000);
+    private static final int NOTIFICATION_DAYS = Integer.getInteger("accounting.retention.notificationDays", 90);
+    private static final int NOTIFICATIONS_PER_USER = Integer.getInteger("accounting.retention.notificationsPerUser", 500);
+    private static final boolean ROLLUP = Boolean.parseBoolean(System.getProperty("accounting.retention.rollup", "true"));
+    private static final int BATCH_SIZE = Math.max(1, Integer.getInteger("accounting.retention.batchSize", 500));
+    private static final long INTERVAL_MINUTES = Math.max(1, Long.getLong("accounting.retention.intervalMinutes", 60L));
+
+    /** Pause between batches so waiting writers get the connection. */
+    private static final long BATCH_PAUSE_MS = 20;
+    /** Free pages returned to the file system per run. */
+    private static final int VACUUM_PAGES = 2_000;
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private static final String ROLLUP_SQL = """
+            INSERT INTO activity_daily_counts (user_id, day, activity_type, entity_type, count)
+            SELECT user_id, substr(created_at, 1, 10), activity_type, entity_type, COUNT(*)
+              FROM activity_log
+             WHERE id IN (%s)
+             GROUP BY user_id, substr(created_at, 1, 10), activity_type, entity_type
+            ON CONFLICT (user_id, day, activity_type, entity_type) DO UPDATE SET count = count + excluded.count
+            """;
+
+    private static ScheduledExecutorService scheduler;
+
+    private RetentionCompactor() {}
+
+    /** Binds the parameters of a batch's id query. */
+    @FunctionalInterface
+    private interface Params {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /** Start the periodic runs; the first one a minute after startup. Later calls do nothing. */
+    public static synchronized void start() {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "retention-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runOnce();
+            } catch (SQLException | RuntimeException e) {
+                e.printStackTrace();
+            }
+        }, 1, INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Apply every retention limit once, then reclaim the freed space.
+     *
+     * @return number of rows deleted
+     */
+    public static int runOnce() throws SQLException {
+        int deleted = 0;
+        deleted += deleteOlderThan("activity_log", ACTIVITY_DAYS, ROLLUP);
+        deleted += deleteBeyondCount("activity_log", ACTIVITY_PER_USER, ROLLUP);
+        deleted += deleteOlderThan("notifications", NOTIFICATION_DAYS, false);
+        deleted += deleteBeyondCount("notifications", NOTIFICATIONS_PER_USER, false);
+        reclaimFreePages();
+        return deleted;
+    }
+
+    private static int deleteOlderThan(String table, int days, boolean rollup) throws SQLException {
+        if (days <= 0) return 0;
+        // created_at is local 'YYYY-MM-DD HH:MM:SS' text, so it compares in time order
+        String ids = "SELECT id FROM " + table
+                + " WHERE created_at < datetime('now', 'localtime', ?) ORDER BY id LIMIT " + BATCH_SIZE;
+        return deleteInBatches(table, ids, rollup, ps -> ps.setString(1, "-" + days + " days"));
+    }
+
+    private static int deleteBeyondCount(String table, int keep, boolean rollup) throws SQLException {
+        if (keep <= 0) return 0;
+        int deleted = 0;
+        for (int userId : usersOverLimit(table, keep)) {
+            long oldestKept = nthNewestId(table, userId, keep);
+            String ids = "SELECT id FROM " + table
+                    + " WHERE user_id = ? AND id < ? ORDER BY id LIMIT " + BATCH_SIZE;
+            deleted += deleteInBatches(table, ids, rollup, ps -> {
+                ps.setInt(1, userId);
+                ps.setLong(2, oldestKept);
+            });
+        }
+        return deleted;
+    }
+
+    /** @return every user with more than {@code keep} rows */
+    private static List<Integer> usersOverLimit(String table, int keep) throws SQLException {
+        List<Integer> users = new ArrayList<>();
+        String sql = "SELECT user_id FROM " + table + " GROUP BY user_id HAVING COUNT(*) > ?";
+        try (Connection conn = DBConnection.connectForRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, keep);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) users.add(rs.getInt(1));
+            }
+        }
+        return users;
+    }
+
+    private static long nthNewestId(String table, int userId, int n) throws SQLException {
+        String sql = "SELECT id FROM " + table + " WHERE user_id = ? ORDER BY id DESC LIMIT 1 OFFSET ?";
+        try (Connection conn = DBConnection.connectForRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            ps.setInt(2, n - 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : Long.MIN_VALUE;
+            }
+        }
+    }
+
+    /**
+     * Delete the rows picked by {@code idsSql} (at most one batch per query)
+     * until it picks fewer than a full batch. Each batch is rolled up (if
+     * asked) and deleted in one transaction; both statements see the same
+     * ids because the writer is held throughout.
+     */
+    private static int deleteInBatches(String table, String idsSql, boolean rollup, Params params) throws SQLException {
+        String deleteSql = "DELETE FROM " + table + " WHERE id IN (" + idsSql + ")";
+        int total = 0;
+        while (true) {
+            int n;
+            try (Connection conn = DBConnection.connect()) {
+                conn.setAutoCommit(false);
+                try {
+                    if (rollup) {
+                        try (PreparedStatement ps = conn.prepareStatement(String.format(ROLLUP_SQL, idsSql))) {
+                            params.bind(ps);
+                            ps.executeUpdate();
+                        }
+                    }
+                    try (PreparedStatement ps = conn.prepareStatement(deleteSql)) {
+                        params.bind(ps);
+                        n = ps.executeUpdate();
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+            total += n;
+            if (n < BATCH_SIZE) return total;
+            try {
+                Thread.sleep(BATCH_PAUSE_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return total;
+            }
+        }
+    }
+
+    /** Truncate up to {@link #VACUUM_PAGES} free pages off the file, if it is in incremental auto_vacuum mode. */
+    private static void reclaimFreePages() throws SQLException {
+        try (Connection conn = DBConnection.connect();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+                // Freed pages stay in the file for reuse until startup has converted it
+                if (!rs.next() || rs.getInt(1) != AUTO_VACUUM_INCREMENTAL) return;
+            }
+            // Frees one page per step: executeUpdate steps it to the end, execute would stop after the first
+            stmt.executeUpdate("PRAGMA incremental_vacuum(" + VACUUM_PAGES + ")");
+        }
+    }
+}
@@ -10,9 +10,10 @@ package com.raven.main;
  */
 public final class Session {
 
-    private static Integer currentUserId;
-    private static String currentUserName;
-    private static String currentUserEmail;
+    // Volatile because background loaders (e.g. search) read the user id off the EDT
+    private static volatile Integer currentUserId;
+    private static volatile String currentUserName;
+    private static volatile String currentUserEmail;
 
     private Session() {
         // utility class
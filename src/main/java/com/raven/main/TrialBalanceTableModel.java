@@ -0,0 +1,173 @@
+package com.raven.main;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trial Balance rows (one per ledger account, then a TOTAL row) with
+ * running debit and credit totals.
+ *
+ * Changing one account with {@link #put} adjusts the totals by that
+ * account's delta and fires updates for its row and the TOTAL row only, so
+ * the table does not have to be rebuilt when a single ledger changes.
+ * Amounts are kept in minor units (see {@link Money}), so the running
+ * totals stay exact however many updates are applied.
+ */
+public final class TrialBalanceTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMNS = {"Account Name", "Debit", "Credit"};
+
+    private static final class Row {
+        final int accountId;
+        String accountName;
+        long debit;
+        long credit;
+
+        Row(int accountId) {
+            this.accountId = accountId;
+        }
+    }
+
+    private final List<Row> rows = new ArrayList<>();
+    /** Position of each account's row in {@link #rows}. */
+    private final Map<Integer, Integer> rowByAccount = new HashMap<>();
+    private long totalDebit;
+    private long totalCredit;
+
+    /**
+     * Add the account or update its row from its ledger balance.
+     * Asset/Expense: positive balance = debit; Liability/Equity/Revenue: positive balance = credit.
+     * A zero balance leaves both columns blank. Matches
+     * {@link LedgerAccountRegistry.AccountVisitor}, so ledger accounts can be
+     * passed straight in.
+     *
+     * @param balance in minor units
+     */
+    public void put(int accountId, String accountName, LedgerAccountRegistry.Kind kind, long balance) {
+        long debit = 0;
+        long credit = 0;
+        long amount = balance;
+        boolean isAssetOrExpense = kind.isDebitNormal();
+        if (amount > 0) {
+            if (isAssetOrExpense) debit = amount;
+            else credit = amount;
+        } else if (amount < 0) {
+            if (isAssetOrExpense) credit = -amount;
+            else debit = -amount;
+        }
+
+        Integer index = rowByAccount.get(accountId);
+        boolean added = index == null;
+        Row row;
+        if (added) {
+            row = new Row(accountId);
+            index = rows.size();
+            rows.add(row);
+            rowByAccount.put(accountId, index);
+        } else {
+            row = rows.get(index);
+            totalDebit -= row.debit;
+            totalCredit -= row.credit;
+        }
+        row.accountName = accountName;
+        row.debit = debit;
+        row.credit = credit;
+        totalDebit += debit;
+        totalCredit += credit;
+
+        // A new row goes in where the TOTAL row was, pushing it down by one
+        if (added) fireTableRowsInserted(index, index);
+        else fireTableRowsUpdated(index, index);
+        fireTotalsUpdated();
+    }
+
+    /** Drop the account's row, if any, and take it out of the totals. */
+    public void remove(int accountId) {
+        Integer index = rowByAccount.remove(accountId);
+        if (index == null) return;
+        Row row = rows.remove((int) index);
+        totalDebit -= row.debit;
+        totalCredit -= row.credit;
+        for (int i = index; i < rows.size(); i++) {
+            rowByAccount.put(rows.get(i).accountId, i);
+        }
+        fireTableRowsDeleted(index, index);
+        fireTotalsUpdated();
+    }
+
+    /** Remove every account. */
+    public void clear() {
+        rows.clear();
+        rowByAccount.clear();
+        totalDebit = 0;
+        totalCredit = 0;
+        fireTableDataChanged();
+    }
+
+    public int getAccountCount() {
+        return rows.size();
+    }
+
+    /** @return total debit in minor units */
+    public long getTotalDebit() {
+        return totalDebit;
+    }
+
+    /** @return total credit in minor units */
+    public long getTotalCredit() {
+        return totalCredit;
+    }
+
+    public boolean isBalanced() {
+        return totalDebit == totalCredit;
+    }
+
+    /** @return true if the given view row is the TOTAL row. */
+    public boolean isTotalRow(int row) {
+        return row == rows.size();
+    }
+
+    private static String format(long minor) {
+        return Money.format(minor);
+    }
+
+    private void fireTotalsUpdated() {
+        fireTableRowsUpdated(rows.size(), rows.size());
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size() + 1;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        if (isTotalRow(rowIndex)) {
+            // Totals row (positive values only)
+            switch (columnIndex) {
+                case 0: return "TOTAL";
+                case 1: return format(totalDebit);
+                default: return format(totalCredit);
+            }
+        }
+        Row row = rows.get(rowIndex);
+        switch (columnIndex) {
+            case 0: return row.accountName;
+            case 1: return row.debit == 0 ? "" : format(row.debit);
+            default: return row.credit == 0 ? "" : format(row.credit);
+        }
+    }
+}
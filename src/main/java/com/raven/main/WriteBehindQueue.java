@@ -0,0 +1,241 @@
+package com.raven.main;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous writer for fire-and-forget single-row INSERTs such as
+ * activity log and notification rows. Callers hand over the SQL and its
+ * parameters and return at once; a daemon thread collects rows for a few
+ * milliseconds (or until a batch is full) and writes them in one
+ * transaction, so a click no longer costs a commit of its own.
+ *
+ * Rows are written in the order they were added. Code that reads these
+ * tables back, and logout and shutdown, call {@link #flush()} first.
+ * When the queue is full, {@link #insert} blocks until the writer makes
+ * room, so a slow disk slows producers down instead of dropping rows. A
+ * caller that holds the writer connection itself cannot wait for the
+ * writer thread (which needs that connection to make room), so after a
+ * short wait its row is written on the held connection instead, possibly
+ * ahead of rows still queued.
+ * A batch that cannot get the writer connection is retried; a batch that
+ * fails is written again row by row, so only a row that fails on its own
+ * (for example a foreign key to a deleted user) is lost, and it is logged.
+ *
+ * Settings can be changed with system properties:
+ * <ul>
+ *   <li>{@code accounting.writeBehind.flushMs} – how long rows are collected
+ *       before a batch is written (default 50)</li>
+ *   <li>{@code accounting.writeBehind.batchSize} – most rows per transaction (default 256)</li>
+ *   <li>{@code accounting.writeBehind.capacity} – rows that may be waiting (default 4096)</li>
+ * </ul>
+ */
+public final class WriteBehindQueue {
+
+    private static final long FLUSH_NS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("accounting.writeBehind.flushMs", 50L));
+    private static final int BATCH_SIZE = Math.max(1, Integer.getInteger("accounting.writeBehind.batchSize", 256));
+    private static final int CAPACITY = Math.max(1, Integer.getInteger("accounting.writeBehind.capacity", 4096));
+    /** How long flush waits for the writer. */
+    private static final long WAIT_MS = 1_000;
+    /** Pause before a batch that could not get the writer connection is tried again. */
+    private static final long RETRY_MS = 500;
+
+    private static final BlockingQueue<Item> QUEUE = new ArrayBlockingQueue<>(CAPACITY);
+
+    static {
+        Thread t = new Thread(WriteBehindQueue::run, "write-behind");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private WriteBehindQueue() {}
+
+    /** Queue one INSERT (or other single-row write) for the next batch; blocks while the queue is full. */
+    public static void insert(String sql, Object... params) {
+        Item row = new Item(sql, params, null);
+        if (DBConnection.isWriterHeldByCurrentThread()) {
+            insertHoldingWriter(row);
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                QUEUE.put(row);
+                break;
+            } catch (InterruptedException e) {
+                // Keep the row; restore the interrupt once it is queued
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Queue the row if room frees up within one collection window; otherwise
+     * write it on the caller's writer connection (and transaction). Waiting
+     * longer is pointless: the writer thread cannot commit while the caller
+     * holds the connection.
+     */
+    private static void insertHoldingWriter(Item row) {
+        try {
+            if (QUEUE.offer(row, FLUSH_NS, TimeUnit.NANOSECONDS)) return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // A nested borrow shares the connection the caller already holds
+        try (Connection conn = DBConnection.connect();
+             PreparedStatement ps = conn.prepareStatement(row.sql)) {
+            bind(ps, row);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Dropped write-behind row: " + row.sql.strip() + " " + Arrays.toString(row.params));
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Wait until every row added before this call is committed. Gives up
+     * after a second if the writer is stuck, rather than hanging the caller.
+     */
+    public static void flush() {
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            if (QUEUE.offer(new Item(null, null, done), WAIT_MS, TimeUnit.MILLISECONDS)) {
+                done.await(WAIT_MS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void run() {
+        List<Item> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(QUEUE.take());
+                QUEUE.drainTo(batch, BATCH_SIZE - batch.size());
+                long deadline = System.nanoTime() + FLUSH_NS;
+                // A flush request ends the wait; rows queued behind it may share its batch
+                while (batch.size() < BATCH_SIZE && !hasFlushRequest(batch)) {
+                    Item next = QUEUE.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                    QUEUE.drainTo(batch, BATCH_SIZE - batch.size());
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                for (Item item : batch) {
+                    if (item.flushed != null) item.flushed.countDown();
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private static boolean hasFlushRequest(List<Item> batch) {
+        for (Item item : batch) {
+            if (item.flushed != null) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Write the rows of the batch in one transaction, one prepared statement
+     * per distinct SQL. Waits and tries again while the writer connection
+     * cannot be had, until the pool is shut down.
+     */
+    private static void write(List<Item> batch) throws InterruptedException {
+        Map<String, List<Item>> bySql = new LinkedHashMap<>();
+        for (Item item : batch) {
+            if (item.sql != null) bySql.computeIfAbsent(item.sql, k -> new ArrayList<>()).add(item);
+        }
+        if (bySql.isEmpty()) return;
+
+        while (true) {
+            Connection conn;
+            try {
+                conn = DBConnection.connect();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                if (DBConnection.isShutdown()) return;
+                Thread.sleep(RETRY_MS);
+                continue;
+            }
+            try (conn) {
+                if (!writeBatch(conn, bySql)) writeRowByRow(conn, batch);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+    }
+
+    /** @return false if the transaction failed and was rolled back */
+    private static boolean writeBatch(Connection conn, Map<String, List<Item>> bySql) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            for (Map.Entry<String, List<Item>> e : bySql.entrySet()) {
+                try (PreparedStatement ps = conn.prepareStatement(e.getKey())) {
+                    for (Item row : e.getValue()) {
+                        bind(ps, row);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            conn.rollback();
+            return false;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /** Write each row on its own, in order, so one bad row does not take the rest of its batch with it. */
+    private static void writeRowByRow(Connection conn, List<Item> batch) {
+        for (Item row : batch) {
+            if (row.sql == null) continue;
+            try (PreparedStatement ps = conn.prepareStatement(row.sql)) {
+                bind(ps, row);
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                System.err.println("Dropped write-behind row: " + row.sql.strip() + " " + Arrays.toString(row.params));
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Item row) throws SQLException {
+        for (int i = 0; i < row.params.length; i++) ps.setObject(i + 1, row.params[i]);
+    }
+
+    /** A queued row, or a flush request when {@code flushed} is set. */
+    private static final class Item {
+        final String sql;
+        final Object[] params;
+        final CountDownLatch flushed;
+
+        Item(String sql, Object[] params, CountDownLatch flushed) {
+            this.sql = sql;
+            this.params = params;
+            this.flushed = flushed;
+        }
+    }
+}
@@ -8,12 +8,11 @@ import java.awt.event.MouseEvent;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.text.DecimalFormat;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -28,8 +27,13 @@ public class financialReports extends JFrame {
     private JPanel reportContainer;
     private RoundedCardPanel reportCard;
     private LocalDate balanceSheetEndDate = null;
-    /** For notification deduplication. */
-    private String lastFinancialReportHash;
+    /** For notification deduplication: last report generated and its totals (minor units). */
+    private String lastFinancialReport;
+    private long[] lastFinancialReportTotals;
+
+    // Report queries run in the background; only the most recently requested report is shown
+    private final BackgroundLoader.Channel reportLoads = new BackgroundLoader.Channel("financial-reports");
+    private BackgroundLoader.Ticket reportLoad;
 
     public financialReports(ledger ledgerFrame) {
         this.ledgerFrame = ledgerFrame;
@@ -196,6 +200,11 @@ public class financialReports extends JFrame {
         buttonPanel.add(incomeBtn);
         buttonPanel.add(cashFlowBtn);
         buttonPanel.add(balanceSheetBtn);
+
+        JLabel loadingLabel = new JLabel("Loading…");
+        loadingLabel.setForeground(new Color(0x545454));
+        buttonPanel.add(loadingLabel);
+        reportLoads.setLoadingIndicator(loadingLabel);
         stack.add(buttonPanel);
         stack.add(Box.createVerticalStrut(16));
 
@@ -213,39 +222,36 @@ public class financialReports extends JFrame {
         return main;
     }
 
-    private List<ledger.LedgerAccountBalance> getLedgerData() {
-        return ledgerFrame != null ? ledgerFrame.getLedgerDataForTrialBalance() : new ArrayList<>();
+    /** Visit the accounts on the ledger mini cards, if the ledger screen is connected. */
+    private void forEachLedgerAccount(LedgerAccountRegistry.AccountVisitor visitor) {
+        if (ledgerFrame != null) ledgerFrame.forEachLedgerAccount(visitor);
     }
 
-    private static String formatNum(double v) {
-        return new DecimalFormat("#,##0.00").format(Math.abs(v));
+    /** Absolute amount in minor units, e.g. {@code "1,250.00"}. */
+    private static String formatNum(long minor) {
+        return Money.format(Math.abs(minor));
     }
 
     private void generateIncomeStatement() {
-        List<ledger.LedgerAccountBalance> data = getLedgerData();
-
-        double totalRevenue = 0, totalExpense = 0;
+        // Built from the ledger cards in memory; drop any report still loading so it cannot replace this one
+        if (reportLoad != null) reportLoad.cancel();
+        // {revenue, expense}
+        long[] totals = new long[2];
         List<String[]> revenueRows = new ArrayList<>();
         List<String[]> expenseRows = new ArrayList<>();
 
-        String revUpper = "REVENUE";
-        String revAlt = "REVENUES";
-        String expUpper = "EXPENSE";
-        String expAlt = "EXPENSES";
-
-        for (ledger.LedgerAccountBalance item : data) {
-            String type = (item.accountType != null ? item.accountType : "").toUpperCase();
-            double amt = item.balance;
-            if (type.equals(revUpper) || type.equals(revAlt)) {
-                totalRevenue += amt;
-                revenueRows.add(new String[]{ChartOfAccountsRepository.toTitleCase(item.accountName), formatNum(amt)});
-            } else if (type.equals(expUpper) || type.equals(expAlt)) {
-                totalExpense += Math.abs(amt);
-                expenseRows.add(new String[]{ChartOfAccountsRepository.toTitleCase(item.accountName), formatNum(Math.abs(amt))});
+        forEachLedgerAccount((accountId, name, kind, amt) -> {
+            if (kind == LedgerAccountRegistry.Kind.REVENUE) {
+                totals[0] += amt;
+                revenueRows.add(new String[]{name, formatNum(amt)});
+            } else if (kind == LedgerAccountRegistry.Kind.EXPENSE) {
+                totals[1] += Math.abs(amt);
+                expenseRows.add(new String[]{name, formatNum(Math.abs(amt))});
             }
-        }
+        });
 
-        double netIncome = totalRevenue - totalExpense;
+        long totalRevenue = totals[0], totalExpense = totals[1];
+        long netIncome = totalRevenue - totalExpense;
 
         reportContainer.removeAll();
         JPanel content = new JPanel(new BorderLayout());
@@ -320,8 +326,7 @@ public class financialReports extends JFrame {
         reportContainer.repaint();
 
         ActivityLogRepository.log("generate", "financial_report", "Income Statement generated");
-        String hash = "Income:" + totalRevenue + "," + totalExpense + "," + netIncome;
-        notifyFinancialReport(hash);
+        notifyFinancialReport("Income", totalRevenue, totalExpense, netIncome);
     }
 
     /** Activity categories for Cash Flow Statement. */
@@ -350,120 +355,148 @@ public class financialReports extends JFrame {
     }
 
     /**
-     * Get account_type from Chart_of_Accounts for the given account name (case-insensitive match).
+     * Compute Cash Flow by category from journal entries. Uses only ledger mini cards to determine
+     * which accounts are cash-related; then uses DB journal lines to assign each cash movement
+     * to Operating/Investing/Financing based on the counterpart account type (deterministic).
+     *
+     * Account types are read once into a map, then all of the user's lines are streamed in one
+     * query ordered by header, and each entry is closed out when the next header starts.
      */
-    private static String getAccountTypeFromCoA(Connection conn, int userId, String accountName) throws java.sql.SQLException {
-        if (accountName == null) return null;
-        String sql = "SELECT account_type FROM Chart_of_Accounts WHERE user_id = ? AND TRIM(UPPER(account_name)) = TRIM(UPPER(?))";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            ps.setString(2, accountName);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? rs.getString("account_type") : null;
+    private static long[] computeCashFlowFromJournalEntries(Integer userId, Set<String> cashAccountNamesNormalized) {
+        CashFlowAccumulator flows = new CashFlowAccumulator();
+        if (userId == null || cashAccountNamesNormalized.isEmpty()) return flows.result();
+
+        String lineSql = """
+                SELECT l.header_id, l.account_id, l.account_name, l.debit, l.credit
+                  FROM journal_entry_headers h
+                  JOIN journal_entry_lines l ON l.header_id = h.id
+                 WHERE h.user_id = ?
+                 ORDER BY h.id, l.id
+                """;
+
+        try (Connection conn = DBConnection.connectForRead()) {
+            try (PreparedStatement ps = conn.prepareStatement(lineSql)) {
+                ps.setInt(1, userId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    int currentHeader = -1;
+                    while (rs.next()) {
+                        int headerId = rs.getInt("header_id");
+                        if (headerId != currentHeader) {
+                            flows.endEntry();
+                            currentHeader = headerId;
+                        }
+                        int accountId = rs.getInt("account_id");
+                        // Current name and type from the cached Chart of Accounts; lines of deleted accounts keep their own stored name
+                        ChartOfAccountsCache.Account account = rs.wasNull() ? null : ChartOfAccountsCache.byId(userId, accountId);
+                        String accName = account != null ? account.name : rs.getString("account_name");
+                        String accNorm = (accName != null ? accName : "").trim().toUpperCase();
+                        long debit = rs.getLong("debit");
+                        long credit = rs.getLong("credit");
+
+                        if (cashAccountNamesNormalized.contains(accNorm)) {
+                            flows.addCash(debit, credit);
+                        } else {
+                            flows.addCounterpart(account != null ? account.type : null, debit, credit);
+                        }
+                    }
+                    flows.endEntry();
+                }
             }
+        } catch (Exception e) {
+            e.printStackTrace();
         }
+
+        return flows.result();
     }
 
     /**
-     * Compute Cash Flow by category from journal entries. Uses only ledger mini cards to determine
-     * which accounts are cash-related; then uses DB journal lines to assign each cash movement
-     * to Operating/Investing/Financing based on the counterpart account type (deterministic).
+     * Running Operating/Investing/Financing inflows and outflows, in minor
+     * units. Lines of one journal entry are added, then {@link #endEntry()}
+     * splits the entry's cash movement across categories in proportion to
+     * its non-cash line amounts.
      */
-    private double[] computeCashFlowFromJournalEntries() {
-        double opInflow = 0, opOutflow = 0, invInflow = 0, invOutflow = 0, finInflow = 0, finOutflow = 0;
-        Integer userId = Session.getUserId();
-        if (userId == null) return new double[]{opInflow, opOutflow, invInflow, invOutflow, finInflow, finOutflow};
+    private static final class CashFlowAccumulator {
+        private long opInflow, opOutflow, invInflow, invOutflow, finInflow, finOutflow;
 
-        // Cash account names from ledger mini cards only (source of truth)
-        Set<String> cashAccountNamesNormalized = new HashSet<>();
-        for (ledger.LedgerAccountBalance item : getLedgerData()) {
-            if (isCashRelatedAccount(item.accountName)) {
-                cashAccountNamesNormalized.add((item.accountName != null ? item.accountName : "").trim().toUpperCase());
+        // Current entry
+        private long entryCashInflow, entryCashOutflow;
+        private long opAmount, invAmount, finAmount;
+
+        void addCash(long debit, long credit) {
+            entryCashInflow += debit;
+            entryCashOutflow += credit;
+        }
+
+        void addCounterpart(String accountType, long debit, long credit) {
+            long amount = Math.abs(debit) + Math.abs(credit);
+            switch (mapAccountTypeToCategory(accountType)) {
+                case INVESTING -> invAmount += amount;
+                case FINANCING -> finAmount += amount;
+                default -> opAmount += amount;
             }
         }
-        if (cashAccountNamesNormalized.isEmpty()) return new double[]{0, 0, 0, 0, 0, 0};
-
-        try (Connection conn = DBConnection.connect()) {
-            String headerSql = "SELECT id FROM journal_entry_headers WHERE user_id = ? ORDER BY id ASC";
-            try (PreparedStatement psHeader = conn.prepareStatement(headerSql)) {
-                psHeader.setInt(1, userId);
-                try (ResultSet rsHeader = psHeader.executeQuery()) {
-                    while (rsHeader.next()) {
-                        int headerId = rsHeader.getInt("id");
-                        String lineSql = "SELECT account_name, debit, credit FROM journal_entry_lines WHERE header_id = ? ORDER BY id ASC";
-                        try (PreparedStatement psLine = conn.prepareStatement(lineSql)) {
-                            psLine.setInt(1, headerId);
-                            try (ResultSet rsLine = psLine.executeQuery()) {
-                                List<String> nonCashNames = new ArrayList<>();
-                                List<Double> nonCashAmounts = new ArrayList<>();
-                                double entryCashInflow = 0, entryCashOutflow = 0;
-
-                                while (rsLine.next()) {
-                                    String accName = rsLine.getString("account_name");
-                                    String accNorm = (accName != null ? accName : "").trim().toUpperCase();
-                                    double debit = rsLine.getDouble("debit");
-                                    double credit = rsLine.getDouble("credit");
-
-                                    if (cashAccountNamesNormalized.contains(accNorm)) {
-                                        entryCashInflow += debit;
-                                        entryCashOutflow += credit;
-                                    } else {
-                                        nonCashNames.add(accName);
-                                        nonCashAmounts.add(Math.abs(debit) + Math.abs(credit));
-                                    }
-                                }
-
-                                if (entryCashInflow == 0 && entryCashOutflow == 0) continue;
-
-                                double totalNonCashAmount = 0;
-                                for (Double a : nonCashAmounts) totalNonCashAmount += a;
-
-                                if (totalNonCashAmount <= 0) {
-                                    // Transfer between cash accounts only: allocate to Operating with net 0
-                                    opInflow += entryCashInflow;
-                                    opOutflow += entryCashOutflow;
-                                    continue;
-                                }
-
-                                double opProp = 0, invProp = 0, finProp = 0;
-                                for (int i = 0; i < nonCashNames.size(); i++) {
-                                    String type = getAccountTypeFromCoA(conn, userId, nonCashNames.get(i));
-                                    String cat = mapAccountTypeToCategory(type);
-                                    double prop = nonCashAmounts.get(i) / totalNonCashAmount;
-                                    switch (cat) {
-                                        case OPERATING -> opProp += prop;
-                                        case INVESTING -> invProp += prop;
-                                        case FINANCING -> finProp += prop;
-                                        default -> opProp += prop;
-                                    }
-                                }
-
-                                opInflow += entryCashInflow * opProp;
-                                opOutflow += entryCashOutflow * opProp;
-                                invInflow += entryCashInflow * invProp;
-                                invOutflow += entryCashOutflow * invProp;
-                                finInflow += entryCashInflow * finProp;
-                                finOutflow += entryCashOutflow * finProp;
-                            }
-                        }
-                    }
+
+        void endEntry() {
+            long totalNonCashAmount = opAmount + invAmount + finAmount;
+            if (entryCashInflow != 0 || entryCashOutflow != 0) {
+                if (totalNonCashAmount <= 0) {
+                    // Transfer between cash accounts only: allocate to Operating with net 0
+                    opInflow += entryCashInflow;
+                    opOutflow += entryCashOutflow;
+                } else {
+                    // Investing and financing shares are rounded to the centavo; operating takes the
+                    // remainder, so the three shares always add up to the entry's cash movement
+                    long invIn = share(entryCashInflow, invAmount, totalNonCashAmount);
+                    long finIn = share(entryCashInflow, finAmount, totalNonCashAmount);
+                    long invOut = share(entryCashOutflow, invAmount, totalNonCashAmount);
+                    long finOut = share(entryCashOutflow, finAmount, totalNonCashAmount);
+                    invInflow += invIn;
+                    finInflow += finIn;
+                    opInflow += entryCashInflow - invIn - finIn;
+                    invOutflow += invOut;
+                    finOutflow += finOut;
+                    opOutflow += entryCashOutflow - invOut - finOut;
                 }
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+            entryCashInflow = entryCashOutflow = 0;
+            opAmount = invAmount = finAmount = 0;
         }
 
-        return new double[]{opInflow, opOutflow, invInflow, invOutflow, finInflow, finOutflow};
+        long[] result() {
+            return new long[]{opInflow, opOutflow, invInflow, invOutflow, finInflow, finOutflow};
+        }
+
+        private static long share(long cash, long part, long total) {
+            return Math.round((double) cash * part / total);
+        }
+    }
+
+    /** Cash account names from ledger mini cards only (source of truth), normalized for matching. */
+    private Set<String> getCashAccountNamesNormalized() {
+        Set<String> cashAccountNamesNormalized = new HashSet<>();
+        forEachLedgerAccount((accountId, name, kind, balance) -> {
+            if (isCashRelatedAccount(name)) {
+                cashAccountNamesNormalized.add((name != null ? name : "").trim().toUpperCase());
+            }
+        });
+        return cashAccountNamesNormalized;
     }
 
     private void generateCashFlowStatement() {
-        double[] flows = computeCashFlowFromJournalEntries();
-        double opInflow = flows[0], opOutflow = flows[1], invInflow = flows[2], invOutflow = flows[3], finInflow = flows[4], finOutflow = flows[5];
+        Integer userId = Session.getUserId();
+        Set<String> cashAccountNamesNormalized = getCashAccountNamesNormalized();
+        if (reportLoad != null) reportLoad.cancel();
+        reportLoad = reportLoads.submit(() -> computeCashFlowFromJournalEntries(userId, cashAccountNamesNormalized),
+                this::showCashFlowStatement);
+    }
+
+    private void showCashFlowStatement(long[] flows) {
+        long opInflow = flows[0], opOutflow = flows[1], invInflow = flows[2], invOutflow = flows[3], finInflow = flows[4], finOutflow = flows[5];
 
-        double opNet = opInflow - opOutflow;
-        double invNet = invInflow - invOutflow;
-        double finNet = finInflow - finOutflow;
-        double totalNetCashFlow = opNet + invNet + finNet;
+        long opNet = opInflow - opOutflow;
+        long invNet = invInflow - invOutflow;
+        long finNet = finInflow - finOutflow;
+        long totalNetCashFlow = opNet + invNet + finNet;
 
         reportContainer.removeAll();
         JPanel content = new JPanel(new BorderLayout());
@@ -537,12 +570,11 @@ public class financialReports extends JFrame {
         reportContainer.repaint();
 
         ActivityLogRepository.log("generate", "financial_report", "Cash Flow Statement generated");
-        String hash = "CashFlow:" + opNet + "," + invNet + "," + finNet + "," + totalNetCashFlow;
-        notifyFinancialReport(hash);
+        notifyFinancialReport("CashFlow", opNet, invNet, finNet, totalNetCashFlow);
     }
 
     /** Category label with inflow/outflow so amount column stays positive-only. */
-    private static String categoryLabel(String category, double net) {
+    private static String categoryLabel(String category, long net) {
         return net >= 0 ? category + " (Net Inflow)" : category + " (Net Outflow)";
     }
 
@@ -586,16 +618,21 @@ public class financialReports extends JFrame {
     }
 
     private void generateBalanceSheet(LocalDate asOfDate) {
-        List<BalanceSheetItem> items = getBalancesAsOfDate(asOfDate);
+        Integer userId = Session.getUserId();
+        if (reportLoad != null) reportLoad.cancel();
+        reportLoad = reportLoads.submit(() -> getBalancesAsOfDate(userId, asOfDate), this::showBalanceSheet);
+    }
+
+    private void showBalanceSheet(List<BalanceSheetItem> items) {
 
-        double totalAssets = 0, totalLiabilities = 0, totalEquity = 0;
+        long totalAssets = 0, totalLiabilities = 0, totalEquity = 0;
         List<String[]> assetRows = new ArrayList<>();
         List<String[]> liabilityRows = new ArrayList<>();
         List<String[]> equityRows = new ArrayList<>();
 
         for (BalanceSheetItem it : items) {
             String type = (it.accountType != null ? it.accountType : "").toUpperCase();
-            double amt = Math.abs(it.balance);
+            long amt = it.balance.abs().minor();
             if (type.equals("ASSET") || type.equals("ASSETS")) {
                 totalAssets += amt;
                 assetRows.add(new String[]{ChartOfAccountsRepository.toTitleCase(it.accountName), formatNum(amt)});
@@ -687,29 +724,32 @@ public class financialReports extends JFrame {
         reportContainer.repaint();
 
         ActivityLogRepository.log("generate", "financial_report", "Balance Sheet generated");
-        String hash = "BalanceSheet:" + totalAssets + "," + totalLiabilities + "," + totalEquity;
-        notifyFinancialReport(hash);
+        notifyFinancialReport("BalanceSheet", totalAssets, totalLiabilities, totalEquity);
     }
 
-    private void notifyFinancialReport(String currentHash) {
+    /** @param totals the report's totals in minor units, compared with the last generated report */
+    private void notifyFinancialReport(String report, long... totals) {
         Integer userId = Session.getUserId();
         if (userId == null) return;
-        if (lastFinancialReportHash != null && !lastFinancialReportHash.equals(currentHash)) {
+        boolean changed = lastFinancialReport != null
+                && (!lastFinancialReport.equals(report) || !java.util.Arrays.equals(lastFinancialReportTotals, totals));
+        if (changed) {
             NotificationHolder.add(userId, "financial_report", "Financial Report value changed");
             NotificationRepository.insert(userId, "Financial Report value changed");
         } else {
             NotificationHolder.add(userId, "financial_report", "Financial Report generated");
             NotificationRepository.insert(userId, "Financial Report generated");
         }
-        lastFinancialReportHash = currentHash;
+        lastFinancialReport = report;
+        lastFinancialReportTotals = totals;
     }
 
     private static class BalanceSheetItem {
         final String accountName;
         final String accountType;
-        final double balance;
+        final Money balance;
 
-        BalanceSheetItem(String accountName, String accountType, double balance) {
+        BalanceSheetItem(String accountName, String accountType, Money balance) {
             this.accountName = accountName;
             this.accountType = accountType;
             this.balance = balance;
@@ -717,44 +757,27 @@ public class financialReports extends JFrame {
     }
 
     /** Compute balances as of given date from journal entries (user-scoped). */
-    private List<BalanceSheetItem> getBalancesAsOfDate(LocalDate asOf) {
+    private static List<BalanceSheetItem> getBalancesAsOfDate(Integer userId, LocalDate asOf) {
         List<BalanceSheetItem> result = new ArrayList<>();
-        Integer userId = Session.getUserId();
         if (userId == null) return result;
 
-        String dateEnd = asOf.format(DateTimeFormatter.ISO_LOCAL_DATE) + " 23:59:59";
-
-        try (Connection conn = DBConnection.connect()) {
-            String accountsSql = "SELECT account_name, account_type FROM Chart_of_Accounts WHERE user_id = ?";
-            try (PreparedStatement psAcc = conn.prepareStatement(accountsSql)) {
-                psAcc.setInt(1, userId);
-                try (ResultSet rsAcc = psAcc.executeQuery()) {
-                    while (rsAcc.next()) {
-                        String accName = rsAcc.getString("account_name");
-                        String accType = rsAcc.getString("account_type");
-                        String sql = """
-                                SELECT l.debit, l.credit FROM journal_entry_lines l
-                                JOIN journal_entry_headers h ON l.header_id = h.id
-                                WHERE h.user_id = ? AND UPPER(l.account_name) = UPPER(?) AND h.created_at <= ?
-                                """;
-                        double balance = 0;
-                        boolean isAssetOrExpense = "ASSET".equalsIgnoreCase(accType) || "EXPENSE".equalsIgnoreCase(accType) || "EXPENSES".equalsIgnoreCase(accType);
-                        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-                            ps.setInt(1, userId);
-                            ps.setString(2, accName);
-                            ps.setString(3, dateEnd);
-                            try (ResultSet rs = ps.executeQuery()) {
-                                while (rs.next()) {
-                                    double d = rs.getDouble("debit");
-                                    double c = rs.getDouble("credit");
-                                    if (isAssetOrExpense) balance += d - c;
-                                    else balance += c - d;
-                                }
-                            }
-                        }
-                        result.add(new BalanceSheetItem(accName, accType, balance));
-                    }
+        try {
+            // Close any finished months first so the as-of read starts from the nearest month-end
+            PeriodCloseRepository.closeCompletedMonths(userId);
+            // Every account's totals at the end of the day in one grouped query
+            Map<Integer, AccountBalanceRepository.AccountTotals> totals = AccountBalanceRepository.getTotalsAsOf(userId, asOf);
+            // Oldest account first, as the table returns them
+            List<ChartOfAccountsCache.Account> accounts = ChartOfAccountsCache.accounts(userId);
+            for (int i = accounts.size() - 1; i >= 0; i--) {
+                ChartOfAccountsCache.Account account = accounts.get(i);
+                String accType = account.type;
+                boolean debitNormal = LedgerAccountRegistry.Kind.of(accType).isDebitNormal();
+                Money balance = Money.ZERO;
+                AccountBalanceRepository.AccountTotals t = totals.get(account.id);
+                if (t != null) {
+                    balance = Money.ofMinor(debitNormal ? t.debitTotal - t.creditTotal : t.creditTotal - t.debitTotal);
                 }
+                result.add(new BalanceSheetItem(account.name, accType, balance));
             }
         } catch (Exception ex) {
             ex.printStackTrace();
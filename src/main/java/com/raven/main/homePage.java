@@ -22,8 +22,12 @@ public class homePage extends JFrame {
     private JLabel liabilitiesAmountLabel;
     private JLabel equityAmountLabel;
     private JLabel profileValueLabel;
-    private JPanel notificationListPanel;
-    private JPanel recentActivityListPanel;
+    private FeedList notificationFeed;
+    private FeedList activityFeed;
+    private final BackgroundLoader.Channel dashboardLoads = new BackgroundLoader.Channel("dashboard");
+    // Older pages of the notification and activity lists, loaded as they are scrolled
+    private final BackgroundLoader.Channel feedLoads = new BackgroundLoader.Channel("dashboard-feeds");
+    private BackgroundLoader.Ticket dashboardRefresh;
 
     public homePage() {
         setTitle("ACCOUNTING SYSTEM - Dashboard");
@@ -402,22 +406,18 @@ public class homePage extends JFrame {
         clearNotifBtn.setFont(getWorkSansBold(12f));
         clearNotifBtn.addActionListener(e -> {
             Integer uid = Session.getUserId();
-            if (uid != null) NotificationRepository.clearAll(uid);
-            if (notificationListPanel != null) refreshDashboard();
+            if (uid == null) return;
+            dashboardLoads.submit(() -> {
+                NotificationRepository.clearAll(uid);
+                return null;
+            }, ignored -> refreshDashboard());
         });
         headerRow.add(clearNotifBtn);
 
-        notificationListPanel = new JPanel();
-        notificationListPanel.setOpaque(false);
-        notificationListPanel.setLayout(new BoxLayout(notificationListPanel, BoxLayout.Y_AXIS));
-        notificationListPanel.setMinimumSize(new Dimension(0, 200));
-        JScrollPane notifScroll = new JScrollPane(notificationListPanel);
-        notifScroll.setBorder(BorderFactory.createEmptyBorder());
-        notifScroll.getViewport().setOpaque(false);
-        notifScroll.setOpaque(false);
+        notificationFeed = new FeedList(NOTIFICATION_BOX_MIN_HEIGHT, homePage::fetchNotificationPage);
 
         panel.add(headerRow, BorderLayout.NORTH);
-        panel.add(notifScroll, BorderLayout.CENTER);
+        panel.add(notificationFeed.scroll, BorderLayout.CENTER);
 
         return panel;
     }
@@ -450,18 +450,16 @@ public class homePage extends JFrame {
         header.setFont(getWorkSansBold(18f));
         header.setForeground(new Color(0x2F2F2F));
         headerRow.add(header);
+        JLabel loadingLabel = new JLabel("Loading…");
+        loadingLabel.setFont(getWorkSansRegular(13f));
+        loadingLabel.setForeground(new Color(0x545454));
+        headerRow.add(loadingLabel);
+        dashboardLoads.setLoadingIndicator(loadingLabel);
 
-        recentActivityListPanel = new JPanel();
-        recentActivityListPanel.setOpaque(false);
-        recentActivityListPanel.setLayout(new BoxLayout(recentActivityListPanel, BoxLayout.Y_AXIS));
-        recentActivityListPanel.setMinimumSize(new Dimension(0, 200));
-        JScrollPane activityScroll = new JScrollPane(recentActivityListPanel);
-        activityScroll.setBorder(BorderFactory.createEmptyBorder());
-        activityScroll.getViewport().setOpaque(false);
-        activityScroll.setOpaque(false);
+        activityFeed = new FeedList(ACTIVITY_BOX_MIN_HEIGHT, homePage::fetchActivityPage);
 
         panel.add(headerRow, BorderLayout.NORTH);
-        panel.add(activityScroll, BorderLayout.CENTER);
+        panel.add(activityFeed.scroll, BorderLayout.CENTER);
 
         return panel;
     }
@@ -471,72 +469,69 @@ public class homePage extends JFrame {
     private static final int BOX_VERTICAL_GAP = 5;
     private static final int BOX_PADDING_TOP_BOTTOM = 10;
     private static final int BOX_PADDING_LEFT_RIGHT = 12;
+    // Rows read per page of the notification and activity lists
+    private static final int FEED_PAGE_SIZE = 50;
+
+    // Everything the dashboard shows, read in one background load
+    private static final class DashboardData {
+        DashboardMetrics.Totals totals;
+        Integer userId;
+        // First page of each list; older rows are paged in as the lists are scrolled
+        java.util.List<FeedItem> notifications = java.util.List.of();
+        java.util.List<FeedItem> activity = java.util.List.of();
+    }
 
+    /**
+     * Reload the metric cards, notifications and recent activity. The
+     * queries run in the background; the panels keep their current content
+     * until the new data arrives. Only the latest refresh is applied.
+     */
     public void refreshDashboard() {
-        double[] totals = DashboardMetrics.computeTotals();
-        double totalRevenue = DashboardMetrics.computeTotalRevenue();
-        if (revenueAmountLabel != null) revenueAmountLabel.setText("₱" + formatMetric(totalRevenue));
-        if (liabilitiesAmountLabel != null) liabilitiesAmountLabel.setText("₱" + formatMetric(totals[1]));
-        if (equityAmountLabel != null) equityAmountLabel.setText("₱" + formatMetric(totals[2]));
-        if (profileValueLabel != null) profileValueLabel.setText("₱" + formatMetric(totals[0]));
-
-        if (notificationListPanel != null) {
-            notificationListPanel.removeAll();
-            Integer userId = Session.getUserId();
+        Integer userId = Session.getUserId();
+        if (dashboardRefresh != null) dashboardRefresh.cancel();
+        dashboardRefresh = dashboardLoads.submit(() -> {
+            DashboardData data = new DashboardData();
+            data.totals = DashboardMetrics.computeTotals();
+            data.userId = userId;
             if (userId != null) {
-                for (NotificationRepository.NotificationEntry n : NotificationRepository.getAll(userId)) {
-                    JPanel box = new RoundedColorBox(new Color(0x545454));
-                    box.setLayout(new BorderLayout());
-                    box.setBorder(BorderFactory.createEmptyBorder(BOX_PADDING_TOP_BOTTOM, BOX_PADDING_LEFT_RIGHT, BOX_PADDING_TOP_BOTTOM, BOX_PADDING_LEFT_RIGHT));
-                    box.setMinimumSize(new Dimension(0, NOTIFICATION_BOX_MIN_HEIGHT));
-                    box.setMaximumSize(new Dimension(Integer.MAX_VALUE, 400));
-                    box.setAlignmentX(Component.LEFT_ALIGNMENT);
-                    String text = n.message + " — " + formatTimeAgo(n.createdAt);
-                    JLabel lbl = new JLabel("<html><div style='width:100%'>" + escapeHtml(text) + "</div></html>");
-                    lbl.setFont(getWorkSansRegular(15f));
-                    lbl.setForeground(Color.WHITE);
-                    lbl.setVerticalAlignment(SwingConstants.TOP);
-                    box.add(lbl, BorderLayout.CENTER);
-                    notificationListPanel.add(box);
-                    notificationListPanel.add(Box.createVerticalStrut(BOX_VERTICAL_GAP));
-                }
+                data.notifications = fetchNotificationPage(userId, Long.MAX_VALUE);
+                data.activity = fetchActivityPage(userId, Long.MAX_VALUE);
             }
-            notificationListPanel.revalidate();
-            notificationListPanel.repaint();
+            return data;
+        }, this::applyDashboard);
+    }
+
+    private static java.util.List<FeedItem> fetchNotificationPage(int userId, long beforeId) {
+        java.util.List<FeedItem> page = new java.util.ArrayList<>();
+        for (NotificationRepository.NotificationEntry n : NotificationRepository.getPage(userId, beforeId, FEED_PAGE_SIZE)) {
+            page.add(new FeedItem(n.id, n.message, n.createdAt, new Color(0x545454), Color.WHITE));
         }
-        if (recentActivityListPanel != null) {
-            recentActivityListPanel.removeAll();
-            for (ActivityLogRepository.ActivityEntry e : ActivityLogRepository.getRecent(100_000)) {
-                boolean isDeletion = "delete".equalsIgnoreCase(e.activityType) || "remove".equalsIgnoreCase(e.activityType);
-                Color bg = isDeletion ? new Color(0xff9999) : new Color(0x99e17a);
-                JPanel box = new RoundedColorBox(bg);
-                box.setLayout(new BorderLayout());
-                box.setBorder(BorderFactory.createEmptyBorder(BOX_PADDING_TOP_BOTTOM, BOX_PADDING_LEFT_RIGHT, BOX_PADDING_TOP_BOTTOM, BOX_PADDING_LEFT_RIGHT));
-                box.setMinimumSize(new Dimension(0, ACTIVITY_BOX_MIN_HEIGHT));
-                box.setMaximumSize(new Dimension(Integer.MAX_VALUE, 400));
-                box.setAlignmentX(Component.LEFT_ALIGNMENT);
-                String text = activityDescription(e) + " — " + formatTimeAgo(e.createdAt);
-                JLabel lbl = new JLabel("<html><div style='width:100%'>" + escapeHtml(text) + "</div></html>");
-                lbl.setFont(getWorkSansRegular(15f));
-                lbl.setForeground(new Color(0x1a1a1a));
-                lbl.setVerticalAlignment(SwingConstants.TOP);
-                box.add(lbl, BorderLayout.CENTER);
-                recentActivityListPanel.add(box);
-                recentActivityListPanel.add(Box.createVerticalStrut(BOX_VERTICAL_GAP));
-            }
-            recentActivityListPanel.revalidate();
-            recentActivityListPanel.repaint();
+        return page;
+    }
+
+    private static java.util.List<FeedItem> fetchActivityPage(int userId, long beforeId) {
+        java.util.List<FeedItem> page = new java.util.ArrayList<>();
+        for (ActivityLogRepository.ActivityEntry e : ActivityLogRepository.getPage(userId, beforeId, FEED_PAGE_SIZE)) {
+            boolean isDeletion = "delete".equalsIgnoreCase(e.activityType) || "remove".equalsIgnoreCase(e.activityType);
+            Color bg = isDeletion ? new Color(0xff9999) : new Color(0x99e17a);
+            page.add(new FeedItem(e.id, activityDescription(e), e.createdAt, bg, new Color(0x1a1a1a)));
         }
+        return page;
     }
 
-    private static String formatMetric(double v) {
-        return String.format("%,.2f", Math.abs(v));
+    private void applyDashboard(DashboardData data) {
+        DashboardMetrics.Totals totals = data.totals;
+        if (revenueAmountLabel != null) revenueAmountLabel.setText("₱" + formatMetric(totals.revenue));
+        if (liabilitiesAmountLabel != null) liabilitiesAmountLabel.setText("₱" + formatMetric(totals.liabilities));
+        if (equityAmountLabel != null) equityAmountLabel.setText("₱" + formatMetric(totals.equity));
+        if (profileValueLabel != null) profileValueLabel.setText("₱" + formatMetric(totals.assets));
+
+        if (notificationFeed != null) notificationFeed.reset(data.userId, data.notifications);
+        if (activityFeed != null) activityFeed.reset(data.userId, data.activity);
     }
 
-    /** Escape for use inside HTML so text doesn't break the label. */
-    private static String escapeHtml(String s) {
-        if (s == null) return "";
-        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\n", "<br/>");
+    private static String formatMetric(Money v) {
+        return v.abs().format();
     }
 
     private static String formatTimeAgo(String createdAt) {
@@ -683,11 +678,14 @@ public class homePage extends JFrame {
     }
 
     private static class RoundedColorBox extends JPanel {
-        private final Color bgColor;
+        private Color bgColor;
         RoundedColorBox(Color bgColor) {
             this.bgColor = bgColor;
             setOpaque(false);
         }
+        void setBoxColor(Color bgColor) {
+            this.bgColor = bgColor;
+        }
         @Override
         protected void paintComponent(Graphics g) {
             Graphics2D g2 = (Graphics2D) g.create();
@@ -699,6 +697,145 @@ public class homePage extends JFrame {
         }
     }
 
+    // One row of the notification or activity list
+    private static final class FeedItem {
+        final long id;
+        final String text;
+        final String createdAt;
+        final Color background;
+        final Color foreground;
+
+        FeedItem(long id, String text, String createdAt, Color background, Color foreground) {
+            this.id = id;
+            this.text = text;
+            this.createdAt = createdAt;
+            this.background = background;
+            this.foreground = foreground;
+        }
+    }
+
+    // Reads one page of a list: the user's rows with id below beforeId, newest first
+    @FunctionalInterface
+    private interface FeedPageSource {
+        java.util.List<FeedItem> fetch(int userId, long beforeId);
+    }
+
+    private static final class FeedListModel extends AbstractListModel<FeedItem> {
+        private final java.util.List<FeedItem> items = new java.util.ArrayList<>();
+
+        @Override
+        public int getSize() { return items.size(); }
+
+        @Override
+        public FeedItem getElementAt(int index) { return items.get(index); }
+
+        FeedItem last() { return items.isEmpty() ? null : items.get(items.size() - 1); }
+
+        void replace(java.util.List<FeedItem> rows) {
+            int old = items.size();
+            items.clear();
+            if (old > 0) fireIntervalRemoved(this, 0, old - 1);
+            append(rows);
+        }
+
+        void append(java.util.List<FeedItem> rows) {
+            if (rows.isEmpty()) return;
+            int first = items.size();
+            items.addAll(rows);
+            fireIntervalAdded(this, first, items.size() - 1);
+        }
+    }
+
+    /**
+     * Notification or Recent Activity list. Only the rows on screen are
+     * painted, all through one shared renderer, and older rows are read a
+     * page at a time (by id) when the list is scrolled near its end.
+     */
+    private final class FeedList {
+        final JScrollPane scroll;
+        private final JList<FeedItem> list;
+        private final FeedListModel model = new FeedListModel();
+        private final FeedPageSource source;
+        private final int rowHeight;
+        private Integer userId;
+        private boolean hasMore;
+        private BackgroundLoader.Ticket pageLoad;
+
+        FeedList(int boxHeight, FeedPageSource source) {
+            this.source = source;
+            this.rowHeight = boxHeight + BOX_VERTICAL_GAP;
+            list = new JList<>(model);
+            list.setCellRenderer(new FeedCellRenderer());
+            // Fixed height: the list never measures rows that are not painted
+            list.setFixedCellHeight(rowHeight);
+            list.setOpaque(false);
+            list.setFocusable(false);
+            ToolTipManager.sharedInstance().registerComponent(list);
+
+            scroll = new JScrollPane(list);
+            scroll.setBorder(BorderFactory.createEmptyBorder());
+            scroll.getViewport().setOpaque(false);
+            scroll.setOpaque(false);
+            scroll.setMinimumSize(new Dimension(0, 200));
+            scroll.getVerticalScrollBar().setUnitIncrement(rowHeight / 2);
+            scroll.getVerticalScrollBar().addAdjustmentListener(e -> loadMoreIfNeeded());
+        }
+
+        /** Show a freshly read first page, dropping older pages and any page still loading. */
+        void reset(Integer userId, java.util.List<FeedItem> firstPage) {
+            if (pageLoad != null) pageLoad.cancel();
+            pageLoad = null;
+            this.userId = userId;
+            model.replace(firstPage);
+            hasMore = firstPage.size() == FEED_PAGE_SIZE;
+            SwingUtilities.invokeLater(this::loadMoreIfNeeded);
+        }
+
+        /** Read the next page once the viewport is within a few rows of the end (or not filled). */
+        private void loadMoreIfNeeded() {
+            if (!hasMore || pageLoad != null || userId == null) return;
+            JScrollBar bar = scroll.getVerticalScrollBar();
+            if (bar.getValue() + bar.getVisibleAmount() < bar.getMaximum() - rowHeight * 5) return;
+            int uid = userId;
+            long beforeId = model.last().id;
+            pageLoad = feedLoads.submit(() -> source.fetch(uid, beforeId), page -> {
+                pageLoad = null;
+                model.append(page);
+                hasMore = page.size() == FEED_PAGE_SIZE;
+                SwingUtilities.invokeLater(this::loadMoreIfNeeded);
+            }, error -> pageLoad = null);
+        }
+    }
+
+    // Paints every feed row with the same box and label, so rows never become components
+    private final class FeedCellRenderer implements ListCellRenderer<FeedItem> {
+        private final JPanel cell = new JPanel(new BorderLayout());
+        private final RoundedColorBox box = new RoundedColorBox(Color.WHITE);
+        private final JLabel label = new JLabel();
+
+        FeedCellRenderer() {
+            label.setFont(getWorkSansRegular(15f));
+            box.setLayout(new BorderLayout());
+            box.setBorder(BorderFactory.createEmptyBorder(BOX_PADDING_TOP_BOTTOM, BOX_PADDING_LEFT_RIGHT, BOX_PADDING_TOP_BOTTOM, BOX_PADDING_LEFT_RIGHT));
+            box.add(label, BorderLayout.CENTER);
+            cell.setOpaque(false);
+            cell.setBorder(BorderFactory.createEmptyBorder(0, 0, BOX_VERTICAL_GAP, 0));
+            cell.add(box, BorderLayout.CENTER);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends FeedItem> list, FeedItem item, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            String text = item.text + " — " + formatTimeAgo(item.createdAt);
+            box.setBoxColor(item.background);
+            label.setForeground(item.foreground);
+            label.setText(text);
+            // Long messages are cut off in the row; the tooltip shows them in full
+            cell.setToolTipText(text);
+            return cell;
+        }
+    }
+
     private static class RoundedButton extends JButton {
         private static final int ARC = 12;
         RoundedButton(String text) {
@@ -6,9 +6,6 @@ import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 
@@ -33,12 +30,38 @@ public class journalEntry extends JFrame {
     /** Entry name for the journal entry being created (Title Case when saving). */
     private String currentEntryName = "";
 
-    private JPanel entriesListPanel;
+    private JournalCardGrid entriesGrid;
     private RoundedCardPanel entriesContainerCard;
     private JTextField searchField;
-    /** Last loaded entries for search reorder/highlight without reloading from DB. */
+    /** Entries loaded so far (newest first) for search reorder/highlight without reloading from DB. */
     private java.util.List<JournalEntryRepository.JournalEntry> lastEntries =
             new java.util.ArrayList<>();
+    /** Keyset cursor for the next page: id of the oldest loaded entry, or null before the first page. */
+    private Integer nextPageBeforeId;
+    private boolean hasMorePages = true;
+    /** Page loads run in the background and are appended in the order they were requested. */
+    private final BackgroundLoader.Channel pageLoads = new BackgroundLoader.Channel("journal-pages");
+    /** Bus of the enclosing app window; journal changes are published on it. */
+    private DomainEventBus eventBus;
+    /** Data for the account picker and edit dialogs, read in the background before they open or fill. */
+    private final BackgroundLoader.Channel dialogLoads = new BackgroundLoader.Channel("journal-dialogs");
+    /** Ranked full-text matches for the current search text; empty when the search box is empty. */
+    private java.util.List<JournalEntryRepository.JournalEntry> searchMatches =
+            new java.util.ArrayList<>();
+    /** Runs the search off the EDT once typing pauses instead of on every keystroke. */
+    private final DebouncedSearch<java.util.List<JournalEntryRepository.JournalEntry>> search =
+            new DebouncedSearch<>("journal", this::searchEntries, this::showSearchMatches);
+
+    // Entries are fetched from the repository a page at a time as the user scrolls
+    private static final int PAGE_SIZE = 60;
+    // Mini-card geometry for the virtualized grid
+    private static final int CARD_WIDTH = 360;
+    private static final int CARD_HEIGHT = 180;
+    private static final int CARD_GAP = 16;
+    // Rows of cards built above and below the viewport so scrolling does not show gaps
+    private static final int BUFFER_ROWS = 2;
+    // Most matches shown for one search; they come first, ranked by relevance
+    private static final int SEARCH_LIMIT = 200;
 
     public journalEntry() {
         setTitle("ACCOUNTING SYSTEM - Journal Entry");
@@ -49,6 +72,13 @@ public class journalEntry extends JFrame {
         initUI();
     }
 
+    /** Also drops any search still pending, so its result is not applied after logout. */
+    @Override
+    public void dispose() {
+        search.shutdown();
+        super.dispose();
+    }
+
     private void initUI() {
         JPanel root = new JPanel(new BorderLayout());
         root.setBackground(new Color(0xE6E6EB));
@@ -169,11 +199,11 @@ public class journalEntry extends JFrame {
         searchField.setFont(new Font("SansSerif", Font.PLAIN, 14));
         searchField.getDocument().addDocumentListener(new DocumentListener() {
             @Override
-            public void insertUpdate(DocumentEvent e) { applySearchFilter(); }
+            public void insertUpdate(DocumentEvent e) { search.submit(searchField.getText()); }
             @Override
-            public void removeUpdate(DocumentEvent e) { applySearchFilter(); }
+            public void removeUpdate(DocumentEvent e) { search.submit(searchField.getText()); }
             @Override
-            public void changedUpdate(DocumentEvent e) { applySearchFilter(); }
+            public void changedUpdate(DocumentEvent e) { search.submit(searchField.getText()); }
         });
 
 
@@ -185,6 +215,12 @@ public class journalEntry extends JFrame {
 
         stack.add(searchRow);
 
+        JLabel loadingLabel = new JLabel("Loading…");
+        loadingLabel.setForeground(new Color(0x545454));
+        loadingLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        stack.add(loadingLabel);
+        pageLoads.setLoadingIndicator(loadingLabel);
+
         // Top stack (title + add button + search) stays fixed at top
         main.add(stack, BorderLayout.NORTH);
 
@@ -196,13 +232,19 @@ public class journalEntry extends JFrame {
         entriesContainerCard.setBorder(BorderFactory.createEmptyBorder(16, 16, 16, 16));
         entriesContainerCard.setAlignmentX(Component.LEFT_ALIGNMENT);
 
-        entriesListPanel = new JPanel();
-        entriesListPanel.setOpaque(false);
-        // Left-aligned flow layout so mini-cards appear in rows, wrapping
-        // automatically when there is no more horizontal space.
-        entriesListPanel.setLayout(new FlowLayout(FlowLayout.LEFT, 16, 16));
-
-        entriesContainerCard.add(entriesListPanel, BorderLayout.CENTER);
+        // Mini-cards appear in left-aligned rows, wrapping when there is no
+        // more horizontal space. Only the rows near the viewport are built.
+        entriesGrid = new JournalCardGrid();
+        JScrollPane entriesScroll = new JScrollPane(entriesGrid,
+                ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED,
+                ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        entriesScroll.setBorder(BorderFactory.createEmptyBorder());
+        entriesScroll.setOpaque(false);
+        entriesScroll.getViewport().setOpaque(false);
+        entriesScroll.getVerticalScrollBar().setUnitIncrement(CARD_GAP);
+        entriesScroll.getViewport().addChangeListener(e -> entriesGrid.layoutVisibleCards());
+
+        entriesContainerCard.add(entriesScroll, BorderLayout.CENTER);
         main.add(entriesContainerCard, BorderLayout.CENTER);
 
         // initial load of existing journal entries
@@ -407,8 +449,8 @@ public class journalEntry extends JFrame {
         for (JournalEntryRepository.JournalLine line : currentSheetLines) {
             model.addRow(new Object[]{
                     ChartOfAccountsRepository.toTitleCase(line.accountName),
-                    line.debit == 0 ? "" : line.debit,
-                    line.credit == 0 ? "" : line.credit
+                    line.debit.isZero() ? "" : line.debit,
+                    line.credit.isZero() ? "" : line.credit
             });
         }
 
@@ -450,8 +492,8 @@ public class journalEntry extends JFrame {
         saveBtn.addActionListener(e -> {
             // Sync model into currentSheetLines
             java.util.List<JournalEntryRepository.JournalLine> lines = new java.util.ArrayList<>();
-            double totalDebit = 0;
-            double totalCredit = 0;
+            long totalDebit = 0;
+            long totalCredit = 0;
 
             for (int r = 0; r < model.getRowCount(); r++) {
                 String accountName = String.valueOf(model.getValueAt(r, 0)).trim();
@@ -465,11 +507,11 @@ public class journalEntry extends JFrame {
                 // Normalize account name to UPPERCASE to match database storage
                 accountName = accountName.toUpperCase();
 
-                double debit = 0;
-                double credit = 0;
+                Money debit = Money.ZERO;
+                Money credit = Money.ZERO;
                 if (!debitStr.isEmpty()) {
                     try {
-                        debit = Double.parseDouble(debitStr);
+                        debit = Money.parse(debitStr);
                     } catch (NumberFormatException ex) {
                         JOptionPane.showMessageDialog(dialog,
                                 "Invalid debit amount on row " + (r + 1),
@@ -480,7 +522,7 @@ public class journalEntry extends JFrame {
                 }
                 if (!creditStr.isEmpty()) {
                     try {
-                        credit = Double.parseDouble(creditStr);
+                        credit = Money.parse(creditStr);
                     } catch (NumberFormatException ex) {
                         JOptionPane.showMessageDialog(dialog,
                                 "Invalid credit amount on row " + (r + 1),
@@ -490,7 +532,7 @@ public class journalEntry extends JFrame {
                     }
                 }
 
-                if ((debit > 0 && credit > 0) || (debit == 0 && credit == 0)) {
+                if ((debit.signum() > 0 && credit.signum() > 0) || (debit.isZero() && credit.isZero())) {
                     JOptionPane.showMessageDialog(dialog,
                             "Each row must have either Debit or Credit (but not both) on row " + (r + 1),
                             "Validation error",
@@ -498,8 +540,8 @@ public class journalEntry extends JFrame {
                     return;
                 }
 
-                totalDebit += debit;
-                totalCredit += credit;
+                totalDebit += debit.minor();
+                totalCredit += credit.minor();
                 lines.add(new JournalEntryRepository.JournalLine(accountName, debit, credit));
             }
 
@@ -512,7 +554,7 @@ public class journalEntry extends JFrame {
             }
 
             // Balance check
-            if (Math.abs(totalDebit - totalCredit) > 0.0001) {
+            if (totalDebit != totalCredit) {
                 int choice = JOptionPane.showConfirmDialog(dialog,
                         "The journal entry is unbalanced. Do you want to save anyway?",
                         "Unbalanced entry",
@@ -526,8 +568,9 @@ public class journalEntry extends JFrame {
             currentSheetLines = lines;
 
             try {
-                journalRepo.saveJournalEntry(currentEntryName, currentSheetLines);
+                int headerId = journalRepo.saveJournalEntry(currentEntryName, currentSheetLines);
                 ActivityLogRepository.log("add", "journal_entry", "Journal Entry added");
+                publish(new DomainEvent.JournalEntrySaved(headerId, journalRepo.getAccountIds(headerId)));
                 reloadJournalCards();
                 dialog.dispose();
             } catch (Exception ex) {
@@ -578,56 +621,16 @@ public class journalEntry extends JFrame {
                     }
                 };
 
-        // Load from Chart_of_Accounts (format like CoA: title case + 12-hour time)
-        try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement("""
-                     SELECT account_name, account_type, created_at
-                       FROM Chart_of_Accounts
-                      WHERE user_id = ?
-                      ORDER BY created_at DESC, id DESC
-                     """)) {
-            Integer userId = Session.getUserId();
-            if (userId != null) {
-                ps.setInt(1, userId);
-                try (ResultSet rs = ps.executeQuery()) {
-                    while (rs.next()) {
-                        String accName = rs.getString("account_name");
-                        String accType = rs.getString("account_type");
-                        String createdAt = rs.getString("created_at");
-
-                        String datePart = "";
-                        String timePart = "";
-                        if (createdAt != null) {
-                            String[] parts = createdAt.split(" ");
-                            if (parts.length >= 1) {
-                                datePart = parts[0];
-                            }
-                            if (parts.length >= 2) {
-                                timePart = parts[1];
-                            }
-                        }
-
-                        // Convert time to 12-hour format with AM/PM
-                        String displayTime = timePart;
-                        try {
-                            if (!timePart.isEmpty()) {
-                                LocalTime t = LocalTime.parse(timePart);
-                                displayTime = t.format(DateTimeFormatter.ofPattern("hh:mm a"));
-                            }
-                        } catch (Exception ignore) { }
-
-                        model.addRow(new Object[]{
-                                datePart,
-                                displayTime,
-                                ChartOfAccountsRepository.toTitleCase(accName),
-                                ChartOfAccountsRepository.toTitleCase(accType)
-                        });
-                    }
-                }
+        // Load from Chart_of_Accounts in the background (format like CoA: title case + 12-hour time).
+        // Actual account names (UPPERCASE) are kept per row for matching with the database.
+        java.util.List<String> actualAccountNames = new java.util.ArrayList<>();
+        Integer userId = Session.getUserId();
+        dialogLoads.submit(() -> fetchAccountRows(userId), rows -> {
+            for (Object[] row : rows) {
+                actualAccountNames.add((String) row[4]);
+                model.addRow(java.util.Arrays.copyOf(row, 4));
             }
-        } catch (Exception ex) {
-            ex.printStackTrace();
-        }
+        });
 
         JTable table = new JTable(model);
         table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -644,34 +647,13 @@ public class journalEntry extends JFrame {
         RoundedButton cancelBtn = new RoundedButton("Cancel");
         cancelBtn.setBackground(Color.RED);
         cancelBtn.setForeground(Color.WHITE);
+        JLabel loadingLabel = new JLabel("Loading accounts…");
+        bottom.add(loadingLabel);
+        dialogLoads.setLoadingIndicator(loadingLabel);
         bottom.add(doneBtn);
         bottom.add(cancelBtn);
         root.add(bottom, BorderLayout.SOUTH);
 
-        // Store actual account names (UPPERCASE) for matching with database
-        java.util.List<String> actualAccountNames = new java.util.ArrayList<>();
-        
-        // Reload to get actual account names
-        try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement("""
-                     SELECT account_name
-                       FROM Chart_of_Accounts
-                      WHERE user_id = ?
-                      ORDER BY created_at DESC, id DESC
-                     """)) {
-            Integer userId = Session.getUserId();
-            if (userId != null) {
-                ps.setInt(1, userId);
-                try (ResultSet rs = ps.executeQuery()) {
-                    while (rs.next()) {
-                        actualAccountNames.add(rs.getString("account_name"));
-                    }
-                }
-            }
-        } catch (Exception ex) {
-            ex.printStackTrace();
-        }
-
         // Row click selects account and goes to debit/credit dialog
         table.addMouseListener(new MouseAdapter() {
             @Override
@@ -704,6 +686,51 @@ public class journalEntry extends JFrame {
         dialog.setVisible(true);
     }
 
+    /**
+     * Read the user's Chart of Accounts for the Select Account dialog. Each
+     * row is date, time, account name, account type (display values) and the
+     * stored account name. Runs off the Event Dispatch Thread.
+     */
+    private static java.util.List<Object[]> fetchAccountRows(Integer userId) throws java.sql.SQLException {
+        java.util.List<Object[]> rows = new java.util.ArrayList<>();
+        if (userId == null) return rows;
+        for (ChartOfAccountsCache.Account account : ChartOfAccountsCache.accounts(userId)) {
+            String accName = account.name;
+            String accType = account.type;
+            String createdAt = account.createdAt;
+
+            String datePart = "";
+            String timePart = "";
+            if (createdAt != null) {
+                String[] parts = createdAt.split(" ");
+                if (parts.length >= 1) {
+                    datePart = parts[0];
+                }
+                if (parts.length >= 2) {
+                    timePart = parts[1];
+                }
+            }
+
+            // Convert time to 12-hour format with AM/PM
+            String displayTime = timePart;
+            try {
+                if (!timePart.isEmpty()) {
+                    LocalTime t = LocalTime.parse(timePart);
+                    displayTime = t.format(DateTimeFormatter.ofPattern("hh:mm a"));
+                }
+            } catch (Exception ignore) { }
+
+            rows.add(new Object[]{
+                    datePart,
+                    displayTime,
+                    ChartOfAccountsRepository.toTitleCase(accName),
+                    ChartOfAccountsRepository.toTitleCase(accType),
+                    accName
+            });
+        }
+        return rows;
+    }
+
     private void showDebitCreditDialog(String accountName) {
         JDialog dialog = new JDialog(this, "Debit or Credit", true);
         dialog.setLayout(new BorderLayout(10, 10));
@@ -768,9 +795,9 @@ public class journalEntry extends JFrame {
                         JOptionPane.ERROR_MESSAGE);
                 return;
             }
-            double value;
+            Money value;
             try {
-                value = Double.parseDouble(amtStr);
+                value = Money.parse(amtStr);
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(dialog,
                         "Invalid amount.",
@@ -779,8 +806,8 @@ public class journalEntry extends JFrame {
                 return;
             }
 
-            double debit = 0;
-            double credit = 0;
+            Money debit = Money.ZERO;
+            Money credit = Money.ZERO;
             if ("Debit".equals(choice)) {
                 debit = value;
             } else {
@@ -803,41 +830,120 @@ public class journalEntry extends JFrame {
         dialog.setVisible(true);
     }
 
+    /**
+     * Connect this screen to the app window's event bus. Renamed or deleted
+     * accounts only reload the cards when a loaded entry has a line posted
+     * to one of them.
+     */
+    public void setEventBus(DomainEventBus bus) {
+        this.eventBus = bus;
+        bus.subscribeBatched(batch -> {
+            if (!batch.has(DomainEvent.AccountRenamed.class, DomainEvent.AccountDeleted.class)) return;
+            for (JournalEntryRepository.JournalEntry entry : lastEntries) {
+                for (JournalEntryRepository.JournalLine line : entry.lines) {
+                    if (line.accountId != null && batch.accountIds.contains(line.accountId)) {
+                        reloadJournalCards();
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    private void publish(DomainEvent event) {
+        if (eventBus != null) eventBus.publish(event);
+    }
+
+    /** One page of entries and the cursor after it, as read in the background. */
+    private static final class EntryPage {
+        final java.util.List<JournalEntryRepository.JournalEntry> entries = new java.util.ArrayList<>();
+        Integer nextBeforeId;
+        boolean hasMore = true;
+    }
+
+    /**
+     * Reload from the first page after a save, edit or delete. Loads at least
+     * as many entries as were loaded before so the scroll position survives.
+     * The pages are read in the background; the current cards stay until
+     * they arrive, and any page load still in flight is dropped.
+     */
     private void reloadJournalCards() {
-        if (entriesListPanel == null) return;
+        if (entriesGrid == null) return;
+        int previouslyLoaded = lastEntries.size();
+        pageLoads.submitLatest(() -> fetchPages(null, previouslyLoaded), loaded -> {
+            lastEntries = new java.util.ArrayList<>();
+            applyPage(loaded);
+        });
+        // Matches may have changed too
+        search.submitNow(searchField != null ? searchField.getText() : "");
+    }
+
+    /** Called by the grid when the viewport gets close to the last loaded entry. */
+    private void requestNextPage() {
+        // One page load at a time; the grid asks again after the page is applied if it still needs more
+        if (!hasMorePages || pageLoads.isLoading()) return;
+        Integer beforeId = nextPageBeforeId;
+        pageLoads.submit(() -> fetchPages(beforeId, 1), this::applyPage);
+    }
+
+    /**
+     * Read pages starting after {@code beforeId} until at least
+     * {@code minEntries} entries are read or there are no more. Runs off the
+     * Event Dispatch Thread.
+     */
+    private EntryPage fetchPages(Integer beforeId, int minEntries) {
+        EntryPage loaded = new EntryPage();
+        loaded.nextBeforeId = beforeId;
         try {
-            lastEntries = journalRepo.loadJournalEntriesForCurrentUser();
+            do {
+                java.util.List<JournalEntryRepository.JournalEntry> page =
+                        journalRepo.loadJournalEntriesPage(loaded.nextBeforeId, PAGE_SIZE);
+                loaded.entries.addAll(page);
+                loaded.hasMore = page.size() == PAGE_SIZE;
+                if (!page.isEmpty()) loaded.nextBeforeId = page.get(page.size() - 1).id;
+            } while (loaded.hasMore && loaded.entries.size() < minEntries);
         } catch (Exception ex) {
             ex.printStackTrace();
-            lastEntries = new java.util.ArrayList<>();
+            loaded.hasMore = false;
         }
+        return loaded;
+    }
+
+    private void applyPage(EntryPage loaded) {
+        lastEntries.addAll(loaded.entries);
+        nextPageBeforeId = loaded.nextBeforeId;
+        hasMorePages = loaded.hasMore;
         applySearchFilter();
     }
 
-    /** Apply search text: move matching cards to top and highlight with light green; clear restores order and background. */
+    /**
+     * Query the full-text index for the search box text (see
+     * {@link JournalSearchQuery} for the syntax). Runs on the search thread.
+     */
+    private java.util.List<JournalEntryRepository.JournalEntry> searchEntries(
+            String text, java.util.function.BooleanSupplier cancelled) throws java.sql.SQLException {
+        JournalSearchQuery query = JournalSearchQuery.parse(text);
+        if (query.isEmpty()) return new java.util.ArrayList<>();
+        java.util.List<Integer> ids = journalRepo.searchHeaderIds(query, SEARCH_LIMIT);
+        if (cancelled.getAsBoolean()) return null;
+        return journalRepo.loadJournalEntriesByIds(ids);
+    }
+
+    private void showSearchMatches(java.util.List<JournalEntryRepository.JournalEntry> matches) {
+        searchMatches = matches;
+        applySearchFilter();
+    }
+
+    /** Show search matches first, highlighted with light green and ranked, then the rest of the loaded entries in their normal order. */
     private void applySearchFilter() {
-        if (entriesListPanel == null) return;
-        entriesListPanel.removeAll();
-        String search = searchField != null ? searchField.getText().trim().toLowerCase() : "";
-        boolean hasSearch = !search.isEmpty();
-
-        // Order: matching first (by entry name), then rest. Matching get light green background.
-        java.util.List<JournalEntryRepository.JournalEntry> matching = new java.util.ArrayList<>();
-        java.util.List<JournalEntryRepository.JournalEntry> other = new java.util.ArrayList<>();
+        if (entriesGrid == null) return;
+        java.util.List<JournalEntryRepository.JournalEntry> ordered = new java.util.ArrayList<>(searchMatches);
+        java.util.Set<Integer> matchingIds = new java.util.HashSet<>();
+        for (JournalEntryRepository.JournalEntry e : searchMatches) matchingIds.add(e.id);
         for (JournalEntryRepository.JournalEntry e : lastEntries) {
-            String name = (e.entryName != null ? e.entryName : "").toLowerCase();
-            if (hasSearch && name.contains(search)) matching.add(e);
-            else other.add(e);
-        }
-        for (JournalEntryRepository.JournalEntry entry : matching) {
-            entriesListPanel.add(createMiniCard(entry, true));
-        }
-        for (JournalEntryRepository.JournalEntry entry : other) {
-            entriesListPanel.add(createMiniCard(entry, false));
+            if (!matchingIds.contains(e.id)) ordered.add(e);
         }
-
-        entriesListPanel.revalidate();
-        entriesListPanel.repaint();
+        entriesGrid.setEntries(ordered, matchingIds);
     }
 
     private JPanel createMiniCard(JournalEntryRepository.JournalEntry entry, boolean highlight) {
@@ -845,7 +951,7 @@ public class journalEntry extends JFrame {
         miniCard.setLayout(new BorderLayout(0, 8));
         miniCard.setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
         miniCard.setAlignmentX(Component.LEFT_ALIGNMENT);
-        miniCard.setPreferredSize(new Dimension(360, 180));
+        miniCard.setPreferredSize(new Dimension(CARD_WIDTH, CARD_HEIGHT));
 
         String titleText = entry.entryName != null && !entry.entryName.isEmpty()
                 ? entry.entryName + "  (" + entry.createdAt + ")"
@@ -867,8 +973,8 @@ public class journalEntry extends JFrame {
         for (JournalEntryRepository.JournalLine line : entry.lines) {
             model.addRow(new Object[]{
                     ChartOfAccountsRepository.toTitleCase(line.accountName),
-                    line.debit == 0 ? "" : line.debit,
-                    line.credit == 0 ? "" : line.credit
+                    line.debit.isZero() ? "" : line.debit,
+                    line.credit.isZero() ? "" : line.credit
             });
         }
 
@@ -898,18 +1004,18 @@ public class journalEntry extends JFrame {
     }
 
     private void showEditDialog(int headerId) {
-        JournalEntryRepository.JournalEntry entry;
-        try {
-            entry = journalRepo.loadById(headerId);
-        } catch (Exception ex) {
+        dialogLoads.submit(() -> journalRepo.loadById(headerId), this::showEditDialog, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Could not load journal entry.", "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
+        });
+    }
+
+    private void showEditDialog(JournalEntryRepository.JournalEntry entry) {
         if (entry == null) {
             JOptionPane.showMessageDialog(this, "Journal entry not found or access denied.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
+        int headerId = entry.id;
 
         JDialog dialog = new JDialog(this, "Edit Journal Entry", true);
         dialog.setLayout(new BorderLayout(10, 10));
@@ -947,8 +1053,8 @@ public class journalEntry extends JFrame {
         for (JournalEntryRepository.JournalLine line : entry.lines) {
             model.addRow(new Object[]{
                     ChartOfAccountsRepository.toTitleCase(line.accountName),
-                    line.debit == 0 ? "" : line.debit,
-                    line.credit == 0 ? "" : line.credit
+                    line.debit.isZero() ? "" : line.debit,
+                    line.credit.isZero() ? "" : line.credit
             });
         }
 
@@ -980,28 +1086,28 @@ public class journalEntry extends JFrame {
                 String accountNameStored = entry.lines.get(r).accountName;
                 String debitStr = String.valueOf(model.getValueAt(r, 1)).trim();
                 String creditStr = String.valueOf(model.getValueAt(r, 2)).trim();
-                double debit = 0, credit = 0;
+                Money debit = Money.ZERO, credit = Money.ZERO;
                 if (!debitStr.isEmpty()) {
-                    try { debit = Double.parseDouble(debitStr); } catch (NumberFormatException ex) {
+                    try { debit = Money.parse(debitStr); } catch (NumberFormatException ex) {
                         JOptionPane.showMessageDialog(dialog, "Invalid debit on row " + (r + 1), "Validation error", JOptionPane.ERROR_MESSAGE);
                         return;
                     }
-                    if (debit < 0) {
+                    if (debit.signum() < 0) {
                         JOptionPane.showMessageDialog(dialog, "Negative values not allowed on row " + (r + 1), "Validation error", JOptionPane.ERROR_MESSAGE);
                         return;
                     }
                 }
                 if (!creditStr.isEmpty()) {
-                    try { credit = Double.parseDouble(creditStr); } catch (NumberFormatException ex) {
+                    try { credit = Money.parse(creditStr); } catch (NumberFormatException ex) {
                         JOptionPane.showMessageDialog(dialog, "Invalid credit on row " + (r + 1), "Validation error", JOptionPane.ERROR_MESSAGE);
                         return;
                     }
-                    if (credit < 0) {
+                    if (credit.signum() < 0) {
                         JOptionPane.showMessageDialog(dialog, "Negative values not allowed on row " + (r + 1), "Validation error", JOptionPane.ERROR_MESSAGE);
                         return;
                     }
                 }
-                if ((debit > 0 && credit > 0) || (debit == 0 && credit == 0)) {
+                if ((debit.signum() > 0 && credit.signum() > 0) || (debit.isZero() && credit.isZero())) {
                     JOptionPane.showMessageDialog(dialog, "Each row must have either Debit or Credit (not both, not both zero) on row " + (r + 1), "Validation error", JOptionPane.ERROR_MESSAGE);
                     return;
                 }
@@ -1012,8 +1118,9 @@ public class journalEntry extends JFrame {
                 return;
             }
             try {
-                journalRepo.updateJournalEntry(headerId, editEntryName.trim(), lines);
+                java.util.Set<Integer> affected = journalRepo.updateJournalEntry(headerId, editEntryName.trim(), lines);
                 ActivityLogRepository.log("edit", "journal_entry", "Journal Entry edited");
+                publish(new DomainEvent.JournalEntryUpdated(headerId, affected));
                 reloadJournalCards();
                 dialog.dispose();
             } catch (Exception ex) {
@@ -1037,8 +1144,9 @@ public class journalEntry extends JFrame {
                 JOptionPane.WARNING_MESSAGE);
         if (choice != JOptionPane.YES_OPTION) return;
         try {
-            journalRepo.deleteJournalEntry(headerId);
+            java.util.Set<Integer> affected = journalRepo.deleteJournalEntry(headerId);
             ActivityLogRepository.log("delete", "journal_entry", "Journal Entry deleted");
+            publish(new DomainEvent.JournalEntryDeleted(headerId, affected));
             reloadJournalCards();
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -1046,6 +1154,129 @@ public class journalEntry extends JFrame {
         }
     }
 
+    /**
+     * Grid of journal entry mini-cards that only builds the cards in the
+     * visible rows plus {@link #BUFFER_ROWS} above and below. Cards that
+     * scroll far out of view are dropped and rebuilt when they come back.
+     * When the viewport nears the end of the loaded entries the next page is
+     * requested from the repository.
+     */
+    private final class JournalCardGrid extends JPanel implements Scrollable {
+        private java.util.List<JournalEntryRepository.JournalEntry> entries = java.util.List.of();
+        private java.util.Set<Integer> highlightedIds = java.util.Set.of();
+        /** Built cards by entry id. */
+        private final java.util.Map<Integer, BuiltCard> cards = new java.util.HashMap<>();
+
+        JournalCardGrid() {
+            super(null);
+            setOpaque(false);
+        }
+
+        void setEntries(java.util.List<JournalEntryRepository.JournalEntry> entries, java.util.Set<Integer> highlightedIds) {
+            this.entries = entries;
+            this.highlightedIds = highlightedIds;
+            revalidate();
+            layoutVisibleCards();
+            repaint();
+        }
+
+        private int columns() {
+            int width = getParent() != null ? getParent().getWidth() : getWidth();
+            return Math.max(1, (width - CARD_GAP) / (CARD_WIDTH + CARD_GAP));
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            int cols = columns();
+            int rows = (entries.size() + cols - 1) / cols;
+            int width = cols * (CARD_WIDTH + CARD_GAP) + CARD_GAP;
+            return new Dimension(width, CARD_GAP + rows * (CARD_HEIGHT + CARD_GAP));
+        }
+
+        @Override
+        public void doLayout() {
+            layoutVisibleCards();
+        }
+
+        void layoutVisibleCards() {
+            Rectangle visible = getVisibleRect();
+            int cols = columns();
+            int rowHeight = CARD_HEIGHT + CARD_GAP;
+            int firstRow = Math.max(0, visible.y / rowHeight - BUFFER_ROWS);
+            int lastRow = (visible.y + visible.height) / rowHeight + BUFFER_ROWS;
+            int first = Math.min(entries.size(), firstRow * cols);
+            int last = Math.min(entries.size(), (lastRow + 1) * cols);
+
+            java.util.Set<Integer> wanted = new java.util.HashSet<>();
+            for (int i = first; i < last; i++) {
+                JournalEntryRepository.JournalEntry entry = entries.get(i);
+                boolean highlight = highlightedIds.contains(entry.id);
+                BuiltCard card = cards.get(entry.id);
+                // A reload replaces the entry objects, so a card is only reused for the same object
+                if (card != null && (card.entry != entry || card.highlight != highlight)) {
+                    remove(card.panel);
+                    card = null;
+                }
+                if (card == null) {
+                    card = new BuiltCard(entry, highlight, createMiniCard(entry, highlight));
+                    cards.put(entry.id, card);
+                    add(card.panel);
+                }
+                int row = i / cols;
+                int col = i % cols;
+                card.panel.setBounds(CARD_GAP + col * (CARD_WIDTH + CARD_GAP), CARD_GAP + row * rowHeight, CARD_WIDTH, CARD_HEIGHT);
+                wanted.add(entry.id);
+            }
+            cards.values().removeIf(card -> {
+                if (wanted.contains(card.entry.id)) return false;
+                remove(card.panel);
+                return true;
+            });
+            // validate() on the new cards lays out their contents without relayouting the grid
+            for (Component c : getComponents()) c.validate();
+            repaint();
+
+            if (last >= entries.size() - cols * BUFFER_ROWS) requestNextPage();
+        }
+
+        private final class BuiltCard {
+            final JournalEntryRepository.JournalEntry entry;
+            final boolean highlight;
+            final JPanel panel;
+
+            BuiltCard(JournalEntryRepository.JournalEntry entry, boolean highlight, JPanel panel) {
+                this.entry = entry;
+                this.highlight = highlight;
+                this.panel = panel;
+            }
+        }
+
+        @Override
+        public Dimension getPreferredScrollableViewportSize() {
+            return getPreferredSize();
+        }
+
+        @Override
+        public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return CARD_GAP;
+        }
+
+        @Override
+        public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return visibleRect.height;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportWidth() {
+            return true;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportHeight() {
+            return false;
+        }
+    }
+
     // ----- Shared rounded components ----------------------------------------
 
     // Simple rounded box used for "Add new entry", search button and headers
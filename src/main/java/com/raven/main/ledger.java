@@ -30,18 +30,67 @@ public class ledger extends JFrame {
     // Track which accounts have already been generated to prevent duplicates
     private java.util.Set<Integer> generatedAccountIds = new java.util.HashSet<>();
     
-    // Map account IDs to their ledger card components and display names for real-time updates
-    private java.util.Map<Integer, RoundedCardPanel> accountLedgerCards = new java.util.HashMap<>();
-    private java.util.Map<Integer, String> accountDisplayNames = new java.util.HashMap<>();
-    private java.util.Map<Integer, String> accountTypes = new java.util.HashMap<>();
-    /** Balance per account for Trial Balance generation (from displayed mini cards). */
-    private java.util.Map<Integer, Double> accountBalances = new java.util.HashMap<>();
+    /** Card, display name, type and balance of each account shown; read by Trial Balance and Financial Reports. */
+    private final LedgerAccountRegistry<LedgerCard> ledgerAccounts = new LedgerAccountRegistry<>();
 
-    /** Called when ledger cards are added or deleted so Trial Balance can refresh. */
-    private Runnable onLedgerChangeCallback;
+    /** Bus of the enclosing app window; card changes are published on it so Trial Balance and the dashboard can follow. */
+    private DomainEventBus eventBus;
 
-    public void setOnLedgerChange(Runnable r) {
-        this.onLedgerChangeCallback = r;
+    // Ledger card loads run in the background; results are applied in the order they were requested
+    private final BackgroundLoader.Channel ledgerLoads = new BackgroundLoader.Channel("ledger");
+    // Line pages of individual cards, loaded only while the card is on screen
+    private final BackgroundLoader.Channel lineLoads = new BackgroundLoader.Channel("ledger-lines");
+    private JScrollPane ledgerScrollPane;
+
+    // Lines fetched per page when a card's table is shown or scrolled to its end
+    private static final int LINE_PAGE_SIZE = 50;
+
+    /**
+     * Connect this screen to the app window's event bus. Journal entry and
+     * account changes reload only the cards of the accounts they touch.
+     */
+    public void setEventBus(DomainEventBus bus) {
+        this.eventBus = bus;
+        bus.subscribeBatched(this::onDomainEvents);
+    }
+
+    private void onDomainEvents(DomainEventBus.Batch batch) {
+        for (DomainEvent.AccountDeleted e : batch.of(DomainEvent.AccountDeleted.class)) {
+            LedgerCard card = ledgerAccounts.card(e.accountId);
+            if (card != null) removeLedgerCard(e.accountId, card);
+        }
+        java.util.Map<Integer, String> touched = new java.util.LinkedHashMap<>();
+        java.util.Set<Integer> renamed = new java.util.HashSet<>();
+        for (DomainEvent.AccountRenamed e : batch.of(DomainEvent.AccountRenamed.class)) {
+            if (!ledgerAccounts.rename(e.accountId, ChartOfAccountsRepository.toTitleCase(e.newName))) continue;
+            // A new type flips the sign of the balance, so the card is read again
+            if (ledgerAccounts.kind(e.accountId) != LedgerAccountRegistry.Kind.of(e.newType)) {
+                touched.put(e.accountId, ledgerAccounts.displayName(e.accountId));
+            } else {
+                LedgerCard card = ledgerAccounts.card(e.accountId);
+                if (card != null) {
+                    ledgerAccounts.visit(e.accountId, (id, name, kind, balance) ->
+                            card.setHeader(name, formatBalance(Money.ofMinor(balance))));
+                }
+                renamed.add(e.accountId);
+            }
+        }
+        if (!renamed.isEmpty()) publish(new DomainEvent.LedgerCardUpdated(renamed));
+        // Only journal changes move balances; the LedgerCard* events in the batch are this screen's own
+        collectTouched(batch.of(DomainEvent.JournalEntrySaved.class), touched);
+        collectTouched(batch.of(DomainEvent.JournalEntryUpdated.class), touched);
+        collectTouched(batch.of(DomainEvent.JournalEntryDeleted.class), touched);
+        if (!touched.isEmpty()) loadLedgers(touched);
+    }
+
+    /** Add the accounts of the events that have a card here to {@code touched}. */
+    private void collectTouched(java.util.List<? extends DomainEvent> events, java.util.Map<Integer, String> touched) {
+        for (DomainEvent e : events) {
+            for (Integer accountId : e.accountIds) {
+                String displayName = ledgerAccounts.displayName(accountId);
+                if (displayName != null) touched.put(accountId, displayName);
+            }
+        }
     }
 
     public ledger() {
@@ -159,6 +208,11 @@ public class ledger extends JFrame {
 
         buttonPanel.add(generateBtn);
         buttonPanel.add(refreshBtn);
+
+        JLabel loadingLabel = new JLabel("Loading…");
+        loadingLabel.setForeground(new Color(0x545454));
+        buttonPanel.add(loadingLabel);
+        ledgerLoads.setLoadingIndicator(loadingLabel);
         stack.add(buttonPanel);
         stack.add(Box.createVerticalStrut(16));
 
@@ -174,12 +228,15 @@ public class ledger extends JFrame {
         ledgerListPanel = new WrappingFlowPanel();
         ledgerListPanel.setOpaque(false);
 
-        JScrollPane ledgerScrollPane = new JScrollPane(ledgerListPanel);
+        ledgerScrollPane = new JScrollPane(ledgerListPanel);
         ledgerScrollPane.setBorder(null);
         ledgerScrollPane.setOpaque(false);
         ledgerScrollPane.getViewport().setOpaque(false);
         ledgerScrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
         ledgerScrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+        ledgerScrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        // Load line tables for cards scrolling into view and release those far away
+        ledgerScrollPane.getViewport().addChangeListener(e -> updateCardVisibility());
 
         ledgerContainerCard.add(ledgerScrollPane, BorderLayout.CENTER);
         main.add(ledgerContainerCard, BorderLayout.CENTER);
@@ -297,59 +354,16 @@ public class ledger extends JFrame {
             }
         };
 
-        // Load from Chart_of_Accounts
+        // Load from Chart_of_Accounts in the background; rows appear once the query finishes
         java.util.List<Integer> accountIds = new java.util.ArrayList<>();
-        try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement("""
-                     SELECT id, account_name, account_type, created_at
-                       FROM Chart_of_Accounts
-                      WHERE user_id = ?
-                      ORDER BY created_at DESC, id DESC
-                     """)) {
-            Integer userId = Session.getUserId();
-            if (userId != null) {
-                ps.setInt(1, userId);
-                try (ResultSet rs = ps.executeQuery()) {
-                    while (rs.next()) {
-                        int id = rs.getInt("id");
-                        String accName = rs.getString("account_name");
-                        String accType = rs.getString("account_type");
-                        String createdAt = rs.getString("created_at");
-
-                        String datePart = "";
-                        String timePart = "";
-                        if (createdAt != null) {
-                            String[] parts = createdAt.split(" ");
-                            if (parts.length >= 1) {
-                                datePart = parts[0];
-                            }
-                            if (parts.length >= 2) {
-                                timePart = parts[1];
-                            }
-                        }
-
-                        // Convert time to 12-hour format with AM/PM
-                        String displayTime = timePart;
-                        try {
-                            if (!timePart.isEmpty()) {
-                                LocalTime t = LocalTime.parse(timePart);
-                                displayTime = t.format(DateTimeFormatter.ofPattern("hh:mm a"));
-                            }
-                        } catch (Exception ignore) { }
-
-                        model.addRow(new Object[]{
-                                datePart,
-                                displayTime,
-                                ChartOfAccountsRepository.toTitleCase(accName),
-                                ChartOfAccountsRepository.toTitleCase(accType)
-                        });
-                        accountIds.add(id);
-                    }
-                }
+        Integer userId = Session.getUserId();
+        BackgroundLoader.Channel accountLoad = new BackgroundLoader.Channel("ledger-accounts");
+        accountLoad.submit(() -> fetchAccountRows(userId), rows -> {
+            for (AccountRow row : rows) {
+                model.addRow(row.cells);
+                accountIds.add(row.id);
             }
-        } catch (Exception ex) {
-            ex.printStackTrace();
-        }
+        });
 
         JTable table = new JTable(model);
         // Allow multiple account selection
@@ -368,6 +382,9 @@ public class ledger extends JFrame {
         cancelBtn.setBackground(Color.RED);
         cancelBtn.setForeground(Color.WHITE);
 
+        JLabel loadingLabel = new JLabel("Loading accounts…");
+        bottom.add(loadingLabel);
+        accountLoad.setLoadingIndicator(loadingLabel);
         bottom.add(doneBtn);
         bottom.add(cancelBtn);
         root.add(bottom, BorderLayout.SOUTH);
@@ -382,34 +399,26 @@ public class ledger extends JFrame {
                 return;
             }
             
-            // Process all selected accounts
-            java.util.List<Integer> newAccountIds = new java.util.ArrayList<>();
-            java.util.List<String> newAccountNames = new java.util.ArrayList<>();
-            
+            // Process all selected accounts; only add those not already generated
+            java.util.Map<Integer, String> newAccounts = new java.util.LinkedHashMap<>();
             for (int row : selectedRows) {
                 if (row >= 0 && row < accountIds.size()) {
                     int accountId = accountIds.get(row);
-                    // Only add if not already generated
                     if (!generatedAccountIds.contains(accountId)) {
-                        newAccountIds.add(accountId);
-                        newAccountNames.add(String.valueOf(model.getValueAt(row, 2)));
+                        newAccounts.put(accountId, String.valueOf(model.getValueAt(row, 2)));
                         generatedAccountIds.add(accountId);
                     }
                 }
             }
-            
+
             dialog.dispose();
-            
-            // Generate ledgers for all newly selected accounts
-            for (int i = 0; i < newAccountIds.size(); i++) {
-                loadLedgerForAccount(newAccountIds.get(i), newAccountNames.get(i), false);
-            }
-            
-            if (!newAccountIds.isEmpty()) {
+
+            if (!newAccounts.isEmpty()) {
                 ActivityLogRepository.log("generate", "ledger", "Ledger generated");
             }
-            refreshAllLedgers();
-            if (onLedgerChangeCallback != null) onLedgerChangeCallback.run();
+
+            // Existing cards are kept current by domain events, so only the new ones need loading
+            if (!newAccounts.isEmpty()) loadLedgers(newAccounts);
         });
 
         cancelBtn.addActionListener(e -> dialog.dispose());
@@ -420,195 +429,439 @@ public class ledger extends JFrame {
         dialog.setVisible(true);
     }
 
+    /** One Chart of Accounts row for the Generate Ledger dialog. */
+    private static final class AccountRow {
+        final int id;
+        final Object[] cells;
+
+        AccountRow(int id, Object[] cells) {
+            this.id = id;
+            this.cells = cells;
+        }
+    }
+
+    /** Card header data of one account (type and balance, not the lines), as read in the background. */
+    private static final class LedgerData {
+        final int accountId;
+        final String displayName;
+        /** Null if the account no longer exists. */
+        final String accountType;
+        Money balance = Money.ZERO;
+
+        LedgerData(int accountId, String displayName, String accountType) {
+            this.accountId = accountId;
+            this.displayName = displayName;
+            this.accountType = accountType;
+        }
+    }
+
     /**
-     * Load or update ledger for a specific account.
-     * 
-     * @param accountId The account ID
-     * @param displayAccountName The display name (Title Case)
-     * @param clearAll If true, clears all ledgers before loading (for single account mode)
+     * Read the user's Chart of Accounts for the Generate Ledger dialog.
+     * Runs off the Event Dispatch Thread.
      */
-    private void loadLedgerForAccount(int accountId, String displayAccountName, boolean clearAll) {
-        if (clearAll) {
-            ledgerListPanel.removeAll();
-            accountLedgerCards.clear();
-            accountDisplayNames.clear();
-            accountTypes.clear();
-            accountBalances.clear();
-            generatedAccountIds.clear();
-        }
-
-        // Fetch ledger lines for this account from journal_entry_lines / headers.
-        // Get the account name and type from Chart_of_Accounts first
-        String accountNameFromDB = null;
-        String accountType = null;
-        try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(
-                     "SELECT account_name, account_type FROM Chart_of_Accounts WHERE id = ?")) {
-            ps.setInt(1, accountId);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    accountNameFromDB = rs.getString("account_name");
-                    accountType = rs.getString("account_type");
-                }
+    private static java.util.List<AccountRow> fetchAccountRows(Integer userId) throws java.sql.SQLException {
+        java.util.List<AccountRow> rows = new java.util.ArrayList<>();
+        if (userId == null) return rows;
+        for (ChartOfAccountsCache.Account account : ChartOfAccountsCache.accounts(userId)) {
+            String[] dateTime = splitCreatedAt(account.createdAt);
+            rows.add(new AccountRow(account.id, new Object[]{
+                    dateTime[0],
+                    dateTime[1],
+                    ChartOfAccountsRepository.toTitleCase(account.name),
+                    ChartOfAccountsRepository.toTitleCase(account.type)
+            }));
+        }
+        return rows;
+    }
+
+    /** Split a created_at timestamp into its date and its time in 12-hour format with AM/PM. */
+    private static String[] splitCreatedAt(String createdAt) {
+        String datePart = "";
+        String timePart = "";
+        if (createdAt != null) {
+            String[] parts = createdAt.split(" ");
+            if (parts.length >= 1) {
+                datePart = parts[0];
+            }
+            if (parts.length >= 2) {
+                timePart = parts[1];
             }
-        } catch (Exception ex) {
-            ex.printStackTrace();
         }
+        String displayTime = timePart;
+        try {
+            if (!timePart.isEmpty()) {
+                LocalTime t = LocalTime.parse(timePart);
+                displayTime = t.format(DateTimeFormatter.ofPattern("hh:mm a"));
+            }
+        } catch (Exception ignore) { }
+        return new String[]{datePart, displayTime};
+    }
 
-        if (accountNameFromDB == null || accountType == null) {
+    /**
+     * Load or update the ledgers of the given accounts in the background,
+     * then apply them on the EDT and publish which cards were added or updated.
+     *
+     * @param accounts account id to display name (Title Case), in card order
+     */
+    private void loadLedgers(java.util.Map<Integer, String> accounts) {
+        Integer userId = Session.getUserId();
+        if (userId == null) {
             JOptionPane.showMessageDialog(this,
-                    "Account not found.",
+                    "No logged-in user.",
                     "Error",
                     JOptionPane.ERROR_MESSAGE);
             return;
         }
-        
-        // Store account type for future calculations
-        accountTypes.put(accountId, accountType);
-
-        String sql = """
-                SELECT h.created_at, l.debit, l.credit
-                  FROM journal_entry_headers h
-                  JOIN journal_entry_lines l ON l.header_id = h.id
-                 WHERE h.user_id = ? AND UPPER(l.account_name) = UPPER(?)
-                 ORDER BY h.created_at, l.id
-                """;
-
-        DefaultTableModel model = new DefaultTableModel(
-                new String[]{"Date", "Time", "Debit", "Credit"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+        java.util.Map<Integer, String> snapshot = new java.util.LinkedHashMap<>(accounts);
+        ledgerLoads.submit(() -> fetchLedgers(userId, snapshot), loaded -> {
+            java.util.Set<Integer> added = new java.util.HashSet<>();
+            java.util.Set<Integer> updated = new java.util.HashSet<>();
+            java.util.List<String> missing = new java.util.ArrayList<>();
+            for (LedgerData data : loaded) {
+                // The card may have been removed while its data was loading
+                if (!generatedAccountIds.contains(data.accountId)) continue;
+                if (data.accountType == null) {
+                    if (!ledgerAccounts.contains(data.accountId)) generatedAccountIds.remove(data.accountId);
+                    missing.add(data.displayName);
+                    continue;
+                }
+                boolean existed = ledgerAccounts.contains(data.accountId);
+                boolean changed = applyLedger(data);
+                if (!existed) added.add(data.accountId);
+                else if (changed) updated.add(data.accountId);
             }
-        };
-
-        // Calculate balance while processing entries
-        double balance = 0.0;
-        String accountTypeUpper = accountType.toUpperCase();
-        // Asset and Expense accounts: balance = balance + debit - credit
-        // Liability, Equity, and Revenue accounts: balance = balance + credit - debit
-        boolean isAssetOrExpense = accountTypeUpper.equals("ASSET") || 
-                                   accountTypeUpper.equals("EXPENSE") ||
-                                   accountTypeUpper.equals("EXPENSES");
-
-        try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            Integer userId = Session.getUserId();
-            if (userId == null) {
+            if (!missing.isEmpty()) {
                 JOptionPane.showMessageDialog(this,
-                        "No logged-in user.",
+                        "Account not found: " + String.join(", ", missing),
                         "Error",
                         JOptionPane.ERROR_MESSAGE);
-                return;
             }
-            ps.setInt(1, userId);
-            ps.setString(2, accountNameFromDB);
+            if (!added.isEmpty()) publish(new DomainEvent.LedgerCardAdded(added));
+            if (!updated.isEmpty()) publish(new DomainEvent.LedgerCardUpdated(updated));
+        }, ex -> {
+            ex.printStackTrace();
+            // Cards that never loaded can be generated again; existing cards keep their last values
+            for (Integer accountId : snapshot.keySet()) {
+                if (!ledgerAccounts.contains(accountId)) generatedAccountIds.remove(accountId);
+            }
+            JOptionPane.showMessageDialog(this,
+                    "Could not load ledgers. Please try again.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    /**
+     * Fetch the card headers (type and balance) of all the given accounts
+     * with one query on one connection. Balances come from the per-account
+     * totals in account_balances, so the cost does not grow with the number
+     * of lines; the lines themselves are paged in by each card when it is
+     * shown. Runs off the Event Dispatch Thread.
+     *
+     * @param accounts account id to display name (Title Case), in card order
+     * @return one entry per requested account, in the same order; accounts
+     *         that no longer exist come back with a null account type
+     * @throws java.sql.SQLException if the query fails; nothing is reported missing then
+     */
+    private static java.util.List<LedgerData> fetchLedgers(int userId, java.util.Map<Integer, String> accounts) throws java.sql.SQLException {
+        java.util.Map<Integer, LedgerData> byId = new java.util.HashMap<>();
+        if (!accounts.isEmpty()) {
+            String sql = """
+                    SELECT c.id AS account_id, c.account_type,
+                           COALESCE(b.debit_total, 0) AS debit_total, COALESCE(b.credit_total, 0) AS credit_total
+                      FROM Chart_of_Accounts c
+                      LEFT JOIN account_balances b ON b.user_id = c.user_id AND b.account_id = c.id
+                     WHERE c.user_id = ? AND c.id IN (%s)
+                    """.formatted(String.join(",", java.util.Collections.nCopies(accounts.size(), "?")));
+
+            try (Connection conn = DBConnection.connectForRead();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+                int i = 1;
+                ps.setInt(i++, userId);
+                for (Integer accountId : accounts.keySet()) {
+                    ps.setInt(i++, accountId);
+                }
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int accountId = rs.getInt("account_id");
+                        String accountType = rs.getString("account_type");
+                        LedgerData data = new LedgerData(accountId, accounts.get(accountId), accountType);
+                        long debit = rs.getLong("debit_total");
+                        long credit = rs.getLong("credit_total");
+                        // Asset and Expense accounts: balance = debit - credit
+                        // Liability, Equity, and Revenue accounts: balance = credit - debit
+                        boolean debitNormal = LedgerAccountRegistry.Kind.of(accountType).isDebitNormal();
+                        data.balance = Money.ofMinor(debitNormal ? debit - credit : credit - debit);
+                        byId.put(accountId, data);
+                    }
+                }
+            }
+        }
+
+        java.util.List<LedgerData> loaded = new java.util.ArrayList<>();
+        for (java.util.Map.Entry<Integer, String> e : accounts.entrySet()) {
+            LedgerData data = byId.get(e.getKey());
+            loaded.add(data != null ? data : new LedgerData(e.getKey(), e.getValue(), null));
+        }
+        return loaded;
+    }
 
+    /** One page of an account's ledger lines and the keyset cursor after it. */
+    private static final class LinePage {
+        final java.util.List<Object[]> rows = new java.util.ArrayList<>();
+        int lastHeaderId;
+        int lastLineId;
+        boolean hasMore;
+    }
+
+    // Lines are read in (header_id, line id) order, which is creation order: a header gets its id and created_at together when saved.
+    // The (account_id, header_id) index ends in the line id, so it serves both range and order and a page reads only its own rows.
+    private static final String FIRST_LINE_PAGE_SQL = """
+            SELECT l.id, l.header_id, h.created_at, l.debit, l.credit
+              FROM journal_entry_lines l
+              JOIN journal_entry_headers h ON h.id = l.header_id
+             WHERE l.account_id = ? AND h.user_id = ?
+             ORDER BY l.header_id, l.id
+             LIMIT ?
+            """;
+
+    private static final String NEXT_LINE_PAGE_SQL = """
+            SELECT l.id, l.header_id, h.created_at, l.debit, l.credit
+              FROM journal_entry_lines l
+              JOIN journal_entry_headers h ON h.id = l.header_id
+             WHERE l.account_id = ? AND (l.header_id, l.id) > (?, ?) AND h.user_id = ?
+             ORDER BY l.header_id, l.id
+             LIMIT ?
+            """;
+
+    /**
+     * Fetch the next page of ledger lines of one account, oldest first.
+     * Pass 0 for {@code afterHeaderId} for the first page. Runs off the
+     * Event Dispatch Thread.
+     */
+    private static LinePage fetchLinePage(int userId, int accountId, int afterHeaderId, int afterLineId) throws java.sql.SQLException {
+        boolean first = afterHeaderId == 0;
+        LinePage page = new LinePage();
+        try (Connection conn = DBConnection.connectForRead();
+             PreparedStatement ps = conn.prepareStatement(first ? FIRST_LINE_PAGE_SQL : NEXT_LINE_PAGE_SQL)) {
+            int p = 1;
+            ps.setInt(p++, accountId);
+            if (!first) {
+                ps.setInt(p++, afterHeaderId);
+                ps.setInt(p++, afterLineId);
+            }
+            ps.setInt(p++, userId);
+            ps.setInt(p, LINE_PAGE_SIZE);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     String createdAt = rs.getString("created_at");
-                    String datePart = "";
-                    String timePart = "";
-                    if (createdAt != null) {
-                        String[] parts = createdAt.split(" ");
-                        if (parts.length >= 1) {
-                            datePart = parts[0];
-                        }
-                        if (parts.length >= 2) {
-                            timePart = parts[1];
-                        }
-                    }
-                    // Convert time to 12-hour format with AM/PM
-                    String displayTime = timePart;
-                    try {
-                        if (!timePart.isEmpty()) {
-                            LocalTime t = LocalTime.parse(timePart);
-                            displayTime = t.format(DateTimeFormatter.ofPattern("hh:mm a"));
-                        }
-                    } catch (Exception ignore) { }
-
-                    double debit = rs.getDouble("debit");
-                    double credit = rs.getDouble("credit");
-
-                    // Calculate balance based on account type
-                    if (isAssetOrExpense) {
-                        balance = balance + debit - credit;
-                    } else {
-                        // Liability, Equity, or Revenue
-                        balance = balance + credit - debit;
-                    }
-
-                    model.addRow(new Object[]{
-                            datePart,
-                            displayTime,
-                            debit == 0 ? "" : debit,
-                            credit == 0 ? "" : credit
+                    String[] dateTime = splitCreatedAt(createdAt);
+                    Money debit = Money.ofMinor(rs.getLong("debit"));
+                    Money credit = Money.ofMinor(rs.getLong("credit"));
+                    page.rows.add(new Object[]{
+                            dateTime[0],
+                            dateTime[1],
+                            debit.isZero() ? "" : debit,
+                            credit.isZero() ? "" : credit
                     });
+                    page.lastHeaderId = rs.getInt("header_id");
+                    page.lastLineId = rs.getInt("id");
                 }
             }
-        } catch (Exception ex) {
-            ex.printStackTrace();
         }
+        page.hasMore = page.rows.size() == LINE_PAGE_SIZE;
+        return page;
+    }
 
-        // Check if ledger card already exists for this account (for updates)
-        RoundedCardPanel miniCard = accountLedgerCards.get(accountId);
-        boolean isNewCard = (miniCard == null);
-        
-        // Store balance for Trial Balance generation
-        accountBalances.put(accountId, balance);
+    /**
+     * Create or update the mini card of one account from loaded ledger data.
+     * Only the header is filled in here; the line table is reloaded once the
+     * card is on screen. Runs on the Event Dispatch Thread.
+     */
+    private boolean applyLedger(LedgerData data) {
+        int accountId = data.accountId;
 
-        // Format balance for display
-        String balanceText = formatBalance(balance);
-        
-        if (isNewCard) {
-            // Create a new mini-card for this ledger
-            miniCard = new RoundedCardPanel(Color.WHITE);
-            miniCard.setLayout(new BorderLayout(0, 8));
-            miniCard.setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
-            miniCard.setPreferredSize(new Dimension(360, 180));
-            
-            // Create title panel with account name on left and balance on right
-            JPanel titlePanel = createTitlePanel(displayAccountName, balanceText);
-            miniCard.add(titlePanel, BorderLayout.NORTH);
-            
-            accountLedgerCards.put(accountId, miniCard);
-            accountDisplayNames.put(accountId, displayAccountName);
-        } else {
-            // Update existing card: remove old content and re-add
-            miniCard.removeAll();
-            JPanel titlePanel = createTitlePanel(displayAccountName, balanceText);
-            miniCard.add(titlePanel, BorderLayout.NORTH);
-        }
+        // Store account type and balance for Trial Balance generation
+        boolean changed = ledgerAccounts.put(accountId, data.displayName, LedgerAccountRegistry.Kind.of(data.accountType), data.balance.minor());
 
-        // Create/update the table with current data
-        JTable table = new JTable(model);
-        table.setFillsViewportHeight(true);
-        JScrollPane scroll = new JScrollPane(table);
-        miniCard.add(scroll, BorderLayout.CENTER);
-
-        // Delete button for this ledger mini card
-        JPanel buttonRow = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
-        buttonRow.setOpaque(false);
-        RoundedButton deleteBtn = new RoundedButton("Delete");
-        deleteBtn.setBackground(Color.RED);
-        deleteBtn.setForeground(Color.WHITE);
-        final RoundedCardPanel cardForDelete = miniCard;
-        deleteBtn.addActionListener(e -> deleteLedgerCard(accountId, cardForDelete));
-        buttonRow.add(deleteBtn);
-        miniCard.add(buttonRow, BorderLayout.SOUTH);
-
-        if (isNewCard) {
+        LedgerCard miniCard = ledgerAccounts.card(accountId);
+        if (miniCard == null) {
+            miniCard = new LedgerCard(accountId);
+            ledgerAccounts.setCard(accountId, miniCard);
             ledgerListPanel.add(miniCard);
         }
-        
+        miniCard.setHeader(data.displayName, formatBalance(data.balance));
+        // Lines may have changed; drop what is loaded so the table is read again when shown
+        miniCard.releaseLines();
+
         ledgerListPanel.revalidate();
         ledgerListPanel.repaint();
+        // Card positions are only known after the layout pass
+        SwingUtilities.invokeLater(this::updateCardVisibility);
+        return changed;
     }
-    
+
+    /**
+     * Load the line tables of the cards inside the viewport, and release the
+     * tables of cards more than one screen away from it.
+     */
+    private void updateCardVisibility() {
+        if (ledgerScrollPane == null) return;
+        Rectangle view = ledgerScrollPane.getViewport().getViewRect();
+        Rectangle keep = new Rectangle(view.x, view.y - view.height, view.width, view.height * 3);
+        ledgerAccounts.forEachCard(card -> {
+            Rectangle bounds = card.getBounds();
+            if (bounds.intersects(view)) {
+                card.ensureLinesLoaded();
+            } else if (!bounds.intersects(keep)) {
+                card.releaseLines();
+            }
+        });
+    }
+
+    /**
+     * Ledger mini card: account name and balance, plus a line table that is
+     * paged in from the database only while the card is on screen.
+     */
+    private final class LedgerCard extends RoundedCardPanel {
+        private final int accountId;
+        private final LedgerLinesModel lines = new LedgerLinesModel();
+        private JPanel titlePanel;
+        /** Bumped whenever the loaded lines are dropped, so pages still in flight are ignored. */
+        private int generation;
+        private boolean requested;
+        private boolean loading;
+        private boolean hasMore = true;
+        private int lastHeaderId;
+        private int lastLineId;
+
+        LedgerCard(int accountId) {
+            super(Color.WHITE);
+            this.accountId = accountId;
+            setLayout(new BorderLayout(0, 8));
+            setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
+            setPreferredSize(new Dimension(360, 180));
+
+            JTable table = new JTable(lines);
+            table.setFillsViewportHeight(true);
+            JScrollPane scroll = new JScrollPane(table);
+            // Fetch the next page when the table is scrolled close to its last loaded row
+            scroll.getVerticalScrollBar().addAdjustmentListener(e -> {
+                JScrollBar bar = (JScrollBar) e.getAdjustable();
+                if (bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - table.getRowHeight() * 5) {
+                    loadNextPage();
+                }
+            });
+            add(scroll, BorderLayout.CENTER);
+
+            // Delete button for this ledger mini card
+            JPanel buttonRow = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+            buttonRow.setOpaque(false);
+            RoundedButton deleteBtn = new RoundedButton("Delete");
+            deleteBtn.setBackground(Color.RED);
+            deleteBtn.setForeground(Color.WHITE);
+            deleteBtn.addActionListener(e -> deleteLedgerCard(accountId, this));
+            buttonRow.add(deleteBtn);
+            add(buttonRow, BorderLayout.SOUTH);
+        }
+
+        /** Title panel with account name on left and balance on right. */
+        void setHeader(String displayAccountName, String balanceText) {
+            if (titlePanel != null) remove(titlePanel);
+            titlePanel = createTitlePanel(displayAccountName, balanceText);
+            add(titlePanel, BorderLayout.NORTH);
+            revalidate();
+            repaint();
+        }
+
+        void ensureLinesLoaded() {
+            if (requested) return;
+            requested = true;
+            loadNextPage();
+        }
+
+        /** Drop the loaded lines; they are read again the next time the card is shown. */
+        void releaseLines() {
+            generation++;
+            requested = false;
+            loading = false;
+            hasMore = true;
+            lastHeaderId = 0;
+            lastLineId = 0;
+            lines.clear();
+        }
+
+        private void loadNextPage() {
+            if (!requested || loading || !hasMore) return;
+            Integer userId = Session.getUserId();
+            if (userId == null) return;
+            loading = true;
+            int myGeneration = generation;
+            int afterHeaderId = lastHeaderId;
+            int afterLineId = lastLineId;
+            lineLoads.submit(() -> fetchLinePage(userId, accountId, afterHeaderId, afterLineId), page -> {
+                if (myGeneration != generation) return;
+                loading = false;
+                hasMore = page.hasMore;
+                if (!page.rows.isEmpty()) {
+                    lastHeaderId = page.lastHeaderId;
+                    lastLineId = page.lastLineId;
+                }
+                lines.append(page.rows);
+            }, ex -> {
+                ex.printStackTrace();
+                if (myGeneration == generation) {
+                    loading = false;
+                    hasMore = false;
+                }
+            });
+        }
+    }
+
+    /** Read-only Date/Time/Debit/Credit rows of one ledger card. */
+    private static final class LedgerLinesModel extends javax.swing.table.AbstractTableModel {
+        private static final String[] COLUMNS = {"Date", "Time", "Debit", "Credit"};
+        private final java.util.List<Object[]> rows = new java.util.ArrayList<>();
+
+        void append(java.util.List<Object[]> page) {
+            if (page.isEmpty()) return;
+            int first = rows.size();
+            rows.addAll(page);
+            fireTableRowsInserted(first, rows.size() - 1);
+        }
+
+        void clear() {
+            if (rows.isEmpty()) return;
+            rows.clear();
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            return rows.get(rowIndex)[columnIndex];
+        }
+    }
+
     /**
      * Delete a ledger mini card. Shows confirmation, highlights briefly, then removes.
      */
-    private void deleteLedgerCard(int accountId, RoundedCardPanel miniCard) {
+    private void deleteLedgerCard(int accountId, LedgerCard miniCard) {
         int choice = JOptionPane.showConfirmDialog(this,
                 "Are you sure you want to delete this ledger?",
                 "Delete Ledger",
@@ -620,66 +873,55 @@ public class ledger extends JFrame {
         miniCard.setHighlightColor(new Color(0xFFCDD2));
         miniCard.repaint();
         Timer timer = new Timer(300, ev -> {
-            ledgerListPanel.remove(miniCard);
-            accountLedgerCards.remove(accountId);
-            accountDisplayNames.remove(accountId);
-            accountTypes.remove(accountId);
-            accountBalances.remove(accountId);
-            generatedAccountIds.remove(accountId);
+            removeLedgerCard(accountId, miniCard);
             ActivityLogRepository.log("remove", "ledger", "Ledger card removed");
-            ledgerListPanel.revalidate();
-            ledgerListPanel.repaint();
-            if (onLedgerChangeCallback != null) onLedgerChangeCallback.run();
         });
         timer.setRepeats(false);
         timer.start();
     }
 
+    /** Take a mini card and its data off the screen and publish the removal. */
+    private void removeLedgerCard(int accountId, LedgerCard miniCard) {
+        miniCard.releaseLines();
+        ledgerListPanel.remove(miniCard);
+        ledgerAccounts.remove(accountId);
+        generatedAccountIds.remove(accountId);
+        ledgerListPanel.revalidate();
+        ledgerListPanel.repaint();
+        publish(new DomainEvent.LedgerCardRemoved(accountId));
+    }
+
+    private void publish(DomainEvent event) {
+        if (eventBus != null) eventBus.publish(event);
+    }
+
     /**
-     * Returns ledger data for Trial Balance: list of (accountName, accountType, balance).
-     * Only includes accounts that are currently displayed as mini cards.
-     * Balance sign: for Asset/Expense positive = debit; for Liability/Equity/Revenue positive = credit.
+     * Visit every account currently displayed as a mini card, for Trial
+     * Balance and Financial Reports. Balances are in minor units; for
+     * debit-normal kinds (asset, expense) positive = debit, for the others
+     * positive = credit. Nothing is allocated per account.
      */
-    public java.util.List<LedgerAccountBalance> getLedgerDataForTrialBalance() {
-        java.util.List<LedgerAccountBalance> result = new java.util.ArrayList<>();
-        for (java.util.Map.Entry<Integer, Double> e : accountBalances.entrySet()) {
-            int accountId = e.getKey();
-            double balance = e.getValue();
-            String displayName = accountDisplayNames.get(accountId);
-            String type = accountTypes.get(accountId);
-            if (displayName != null) {
-                result.add(new LedgerAccountBalance(displayName, type != null ? type : "", balance));
-            }
-        }
-        return result;
+    public void forEachLedgerAccount(LedgerAccountRegistry.AccountVisitor visitor) {
+        ledgerAccounts.forEach(visitor);
     }
 
-    /** Data class for Trial Balance generation from Ledger. */
-    public static class LedgerAccountBalance {
-        public final String accountName;
-        public final String accountType;
-        public final double balance;
-
-        public LedgerAccountBalance(String accountName, String accountType, double balance) {
-            this.accountName = accountName;
-            this.accountType = accountType != null ? accountType : "";
-            this.balance = balance;
-        }
+    /**
+     * Visit one account like {@link #forEachLedgerAccount}.
+     *
+     * @return false if it has no mini card (e.g. it was just removed)
+     */
+    public boolean visitLedgerAccount(int accountId, LedgerAccountRegistry.AccountVisitor visitor) {
+        return ledgerAccounts.visit(accountId, visitor);
     }
 
     /**
      * Refresh all existing ledgers to reflect real-time database changes.
      */
     private void refreshAllLedgers() {
-        if (accountLedgerCards.isEmpty()) {
+        if (ledgerAccounts.isEmpty()) {
             return; // No ledgers to refresh
         }
-        
-        for (java.util.Map.Entry<Integer, String> entry : accountDisplayNames.entrySet()) {
-            int accountId = entry.getKey();
-            String displayName = entry.getValue();
-            loadLedgerForAccount(accountId, displayName, false);
-        }
+        loadLedgers(ledgerAccounts.displayNames());
     }
 
     /**
@@ -688,13 +930,12 @@ public class ledger extends JFrame {
      * @param balance The calculated balance
      * @return Formatted string like "5,000 Debit Balance" or "3,000 Credit Balance"
      */
-    private String formatBalance(double balance) {
-        java.text.DecimalFormat formatter = new java.text.DecimalFormat("#,##0.00");
-        String formattedAmount = formatter.format(Math.abs(balance));
+    private String formatBalance(Money balance) {
+        String formattedAmount = balance.abs().format();
         
-        if (balance > 0) {
+        if (balance.signum() > 0) {
             return formattedAmount + " Debit Balance";
-        } else if (balance < 0) {
+        } else if (balance.signum() < 0) {
             return formattedAmount + " Credit Balance";
         } else {
             return "0.00 Balance";
@@ -121,7 +121,7 @@ public class logInPage extends JPanel {
                 int[] userIdHolder = new int[1];
                 String[] nameHolder = new String[1];
 
-                try (Connection conn = DBConnection.connect()) {
+                try (Connection conn = DBConnection.connectForRead()) {
                     // Fetch the user's id and name parts so we can start a session.
                     String sql = "SELECT id, first_name, last_name FROM users WHERE email = ? AND password = ?";
                     try (PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -1,12 +1,10 @@
 package com.raven.main;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.text.DecimalFormat;
 
 /**
  * Trial Balance window.
@@ -27,9 +25,13 @@ public class trialBalance extends JFrame {
     private JLabel errorLabel;
     /** True after user has generated at least once; used to auto-refresh when Ledger changes. */
     private boolean trialBalanceGenerated;
-    /** For notification deduplication: last totals hash and balanced state. */
-    private String lastTrialBalanceHash;
+    /** For notification deduplication: last debit/credit totals (minor units) and balanced state. */
+    private long[] lastTrialBalanceTotals;
     private Boolean lastTrialBalanceBalanced;
+    /** Rows and running totals; kept across ledger changes so only touched rows are updated. */
+    private final TrialBalanceTableModel trialBalanceModel = new TrialBalanceTableModel();
+    private JScrollPane trialBalanceScroll;
+    private JLabel warningLabel;
 
     public trialBalance(ledger ledgerFrame) {
         this.ledgerFrame = ledgerFrame;
@@ -242,12 +244,17 @@ public class trialBalance extends JFrame {
     // ----- Generate Trial Balance flow ---------------------------------------------
 
     /**
-     * Refresh Trial Balance table from current Ledger data. Called when user clicks
-     * Generate Trial Balance or when Ledger mini cards are added/deleted (only if table was already generated).
+     * Connect this screen to the app window's event bus. Once the Trial
+     * Balance has been generated, ledger card changes update only the rows
+     * of the accounts they touch.
      */
-    public void refreshTrialBalanceFromLedger() {
-        if (!trialBalanceGenerated) return;
-        generateTrialBalanceFromLedger();
+    public void setEventBus(DomainEventBus bus) {
+        bus.subscribeBatched(batch -> {
+            if (!trialBalanceGenerated) return;
+            if (batch.has(DomainEvent.LedgerCardAdded.class, DomainEvent.LedgerCardUpdated.class, DomainEvent.LedgerCardRemoved.class)) {
+                applyLedgerChanges(batch.accountIds);
+            }
+        });
     }
 
     /**
@@ -255,158 +262,141 @@ public class trialBalance extends JFrame {
      * Displays inline error if no ledger cards exist.
      */
     private void generateTrialBalanceFromLedger() {
-        java.util.List<ledger.LedgerAccountBalance> ledgerData = ledgerFrame.getLedgerDataForTrialBalance();
-
-        if (ledgerData.isEmpty()) {
-            errorLabel.setText("No ledger records found. Please generate ledger entries before creating a trial balance.");
-            errorLabel.setVisible(true);
-            trialBalanceContainer.removeAll();
-            trialBalanceContainer.revalidate();
-            trialBalanceContainer.repaint();
-            trialBalanceGenerated = false;
+        trialBalanceModel.clear();
+        // Ledger names are already in Title Case
+        ledgerFrame.forEachLedgerAccount(trialBalanceModel::put);
+        if (trialBalanceModel.getAccountCount() == 0) {
+            showNoLedgerError();
             return;
         }
-
         trialBalanceGenerated = true;
         errorLabel.setText("");
         errorLabel.setVisible(false);
-        displayTrialBalanceFromLedger(ledgerData);
+        showTrialBalanceTable();
+        onTotalsChanged();
         ActivityLogRepository.log("generate", "trial_balance", "Trial Balance generated");
     }
 
-    private void displayTrialBalanceFromLedger(java.util.List<ledger.LedgerAccountBalance> ledgerData) {
-        trialBalanceContainer.removeAll();
-
-        String[] cols = {"Account Name", "Debit", "Credit"};
-        DefaultTableModel model = new DefaultTableModel(cols, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-
-        double totalDebit = 0.0;
-        double totalCredit = 0.0;
-
-        for (ledger.LedgerAccountBalance item : ledgerData) {
-            // Ledger: Asset/Expense → positive balance = debit; Liability/Equity/Revenue → positive balance = credit
-            double debit = 0.0;
-            double credit = 0.0;
-            String typeUpper = (item.accountType != null ? item.accountType : "").toUpperCase();
-            boolean isAssetOrExpense = typeUpper.equals("ASSET") || typeUpper.equals("EXPENSE") || typeUpper.equals("EXPENSES");
-
-            if (item.balance > 0) {
-                if (isAssetOrExpense) {
-                    debit = item.balance;
-                    totalDebit += debit;
-                } else {
-                    credit = item.balance;
-                    totalCredit += credit;
-                }
-            } else if (item.balance < 0) {
-                if (isAssetOrExpense) {
-                    credit = Math.abs(item.balance);
-                    totalCredit += credit;
-                } else {
-                    debit = Math.abs(item.balance);
-                    totalDebit += debit;
-                }
+    /**
+     * Bring the rows of the given accounts in line with their ledger cards:
+     * update or add the accounts that still have a card, remove the rest.
+     */
+    private void applyLedgerChanges(java.util.Set<Integer> accountIds) {
+        for (Integer accountId : accountIds) {
+            if (!ledgerFrame.visitLedgerAccount(accountId, trialBalanceModel::put)) {
+                trialBalanceModel.remove(accountId);
             }
-            // balance == 0: leave both columns blank
-
-            model.addRow(new Object[]{
-                    ChartOfAccountsRepository.toTitleCase(item.accountName),
-                    debit == 0 ? "" : formatNumber(debit),
-                    credit == 0 ? "" : formatNumber(credit)
-            });
         }
+        if (trialBalanceModel.getAccountCount() == 0) {
+            showNoLedgerError();
+            return;
+        }
+        onTotalsChanged();
+    }
 
-        // Totals row (positive values only)
-        model.addRow(new Object[]{"TOTAL", formatNumber(totalDebit), formatNumber(totalCredit)});
-
-        trialBalanceTable = StandardTableStyle.createStandardTable(model);
-        StandardTableStyle.applyStandardTableStyle(trialBalanceTable);
+    private void showNoLedgerError() {
+        errorLabel.setText("No ledger records found. Please generate ledger entries before creating a trial balance.");
+        errorLabel.setVisible(true);
+        trialBalanceContainer.removeAll();
+        trialBalanceContainer.revalidate();
+        trialBalanceContainer.repaint();
+        trialBalanceGenerated = false;
+    }
 
-        final boolean totalsMismatch = Math.abs(totalDebit - totalCredit) > 0.01;
-        final boolean balanced = !totalsMismatch;
-        String currentHash = totalDebit + "," + totalCredit;
-        Integer userId = Session.getUserId();
-        if (userId != null) {
-            if (lastTrialBalanceHash != null && !lastTrialBalanceHash.equals(currentHash)) {
-                NotificationHolder.add(userId, "trial_balance", "Trial Balance value changed");
-                NotificationRepository.insert(userId, "Trial Balance value changed");
-            }
-            if (lastTrialBalanceBalanced == null || !lastTrialBalanceBalanced.equals(balanced)) {
-                String msg = balanced ? "Trial Balance is balanced" : "Trial Balance is unbalanced";
-                NotificationHolder.add(userId, "trial_balance_balance", msg);
-                NotificationRepository.insert(userId, msg);
-            }
-        }
-        lastTrialBalanceHash = currentHash;
-        lastTrialBalanceBalanced = balanced;
+    /** Put the (reused) table into the card. Built the first time it is needed. */
+    private void showTrialBalanceTable() {
+        if (trialBalanceTable == null) {
+            trialBalanceTable = StandardTableStyle.createStandardTable(trialBalanceModel);
+            StandardTableStyle.applyStandardTableStyle(trialBalanceTable);
 
-        // Right-align Debit and Credit columns; highlight totals row when unbalanced (styling only)
-        TableCellRenderer rightAlignRenderer = new StandardTableStyle.StandardTableRenderer() {
-            @Override
-            public Component getTableCellRendererComponent(JTable table, Object value,
-                                                          boolean isSelected, boolean hasFocus,
-                                                          int row, int column) {
-                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-                setHorizontalAlignment(SwingConstants.RIGHT);
-                if (totalsMismatch && row == table.getRowCount() - 1) {
-                    setOpaque(true);
-                    setBackground(Color.RED);
-                    setForeground(Color.WHITE);
-                } else {
-                    setOpaque(false);
+            // Right-align Debit and Credit columns; highlight totals row when unbalanced (styling only)
+            TableCellRenderer rightAlignRenderer = new StandardTableStyle.StandardTableRenderer() {
+                @Override
+                public Component getTableCellRendererComponent(JTable table, Object value,
+                                                              boolean isSelected, boolean hasFocus,
+                                                              int row, int column) {
+                    Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+                    setHorizontalAlignment(SwingConstants.RIGHT);
+                    applyTotalHighlight(this, row);
+                    return c;
                 }
-                return c;
-            }
-        };
-        trialBalanceTable.getColumnModel().getColumn(1).setCellRenderer(rightAlignRenderer);
-        trialBalanceTable.getColumnModel().getColumn(2).setCellRenderer(rightAlignRenderer);
-
-        if (totalsMismatch) {
+            };
             trialBalanceTable.getColumnModel().getColumn(0).setCellRenderer(new StandardTableStyle.StandardTableRenderer() {
                 @Override
                 public Component getTableCellRendererComponent(JTable table, Object value,
                                                               boolean isSelected, boolean hasFocus,
                                                               int row, int column) {
                     Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-                    if (row == table.getRowCount() - 1) {
-                        setOpaque(true);
-                        setBackground(Color.RED);
-                        setForeground(Color.WHITE);
-                    } else {
-                        setOpaque(false);
-                    }
+                    applyTotalHighlight(this, row);
                     return c;
                 }
             });
-        }
+            trialBalanceTable.getColumnModel().getColumn(1).setCellRenderer(rightAlignRenderer);
+            trialBalanceTable.getColumnModel().getColumn(2).setCellRenderer(rightAlignRenderer);
 
-        JScrollPane scroll = new JScrollPane(trialBalanceTable);
-        StandardTableStyle.styleScrollPaneForTable(scroll);
-        trialBalanceContainer.add(scroll, BorderLayout.CENTER);
+            trialBalanceScroll = new JScrollPane(trialBalanceTable);
+            StandardTableStyle.styleScrollPaneForTable(trialBalanceScroll);
 
-        if (Math.abs(totalDebit - totalCredit) > 0.01) {
-            JLabel warningLabel = new JLabel(
-                    "<html><font color='red' size='+1'><b>Warning: Total Debit (" + formatNumber(totalDebit) +
-                    ") does not equal Total Credit (" + formatNumber(totalCredit) + ")</b></font></html>");
+            warningLabel = new JLabel();
             warningLabel.setBorder(BorderFactory.createEmptyBorder(8, 16, 8, 16));
-            trialBalanceContainer.add(warningLabel, BorderLayout.NORTH);
         }
-
+        trialBalanceContainer.removeAll();
+        trialBalanceContainer.add(warningLabel, BorderLayout.NORTH);
+        trialBalanceContainer.add(trialBalanceScroll, BorderLayout.CENTER);
         trialBalanceContainer.revalidate();
         trialBalanceContainer.repaint();
     }
 
+    /** Red totals row while debits and credits differ. */
+    private void applyTotalHighlight(JLabel renderer, int row) {
+        if (!trialBalanceModel.isBalanced() && trialBalanceModel.isTotalRow(row)) {
+            renderer.setOpaque(true);
+            renderer.setBackground(Color.RED);
+            renderer.setForeground(Color.WHITE);
+        } else {
+            renderer.setOpaque(false);
+        }
+    }
+
+    /** Update the warning and send notifications after the totals may have changed. */
+    private void onTotalsChanged() {
+        long totalDebit = trialBalanceModel.getTotalDebit();
+        long totalCredit = trialBalanceModel.getTotalCredit();
+        final boolean balanced = trialBalanceModel.isBalanced();
+
+        if (balanced) {
+            warningLabel.setText("");
+            warningLabel.setVisible(false);
+        } else {
+            warningLabel.setText(
+                    "<html><font color='red' size='+1'><b>Warning: Total Debit (" + formatNumber(totalDebit) +
+                    ") does not equal Total Credit (" + formatNumber(totalCredit) + ")</b></font></html>");
+            warningLabel.setVisible(true);
+        }
+        // The totals row changes color with the balanced state
+        trialBalanceTable.repaint();
+
+        long[] currentTotals = {totalDebit, totalCredit};
+        Integer userId = Session.getUserId();
+        if (userId != null) {
+            if (lastTrialBalanceTotals != null && !java.util.Arrays.equals(lastTrialBalanceTotals, currentTotals)) {
+                NotificationHolder.add(userId, "trial_balance", "Trial Balance value changed");
+                NotificationRepository.insert(userId, "Trial Balance value changed");
+            }
+            if (lastTrialBalanceBalanced == null || !lastTrialBalanceBalanced.equals(balanced)) {
+                String msg = balanced ? "Trial Balance is balanced" : "Trial Balance is unbalanced";
+                NotificationHolder.add(userId, "trial_balance_balance", msg);
+                NotificationRepository.insert(userId, msg);
+            }
+        }
+        lastTrialBalanceTotals = currentTotals;
+        lastTrialBalanceBalanced = balanced;
+    }
     /**
-     * Format number with commas and two decimal places.
+     * Format an amount in minor units with commas and two decimal places.
      */
-    private String formatNumber(double value) {
-        DecimalFormat formatter = new DecimalFormat("#,##0.00");
-        return formatter.format(value);
+    private String formatNumber(long minor) {
+        return Money.format(minor);
     }
 
     // ----- Shared rounded components ----------------------------------------
@@ -42,6 +42,8 @@ public class windowManager extends JFrame {
             }
         } catch (Exception ignored) { }
         btn.addActionListener(e -> {
+            // Write the user's queued activity and notifications before the session ends
+            WriteBehindQueue.flush();
             Session.clear();
             Window w = SwingUtilities.getWindowAncestor(btn);
             if (w != null) w.dispose();
@@ -158,6 +160,13 @@ public class windowManager extends JFrame {
     public static void main(String[] args) {
         // Ensure database schema is present before any UI or queries run.
         DatabaseInitializer.initialize();
+        // Trim old activity and notifications in the background from now on.
+        RetentionCompactor.start();
+        // Write queued activity and notification rows, then close the pooled SQLite connections, when the app exits.
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            WriteBehindQueue.flush();
+            DBConnection.shutdown();
+        }, "db-pool-shutdown"));
         SwingUtilities.invokeLater(windowManager::new);
     }
 }